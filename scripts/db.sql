@@ -2,10 +2,25 @@
 CREATE TABLE IF NOT EXISTS todo (
     "id" UUID PRIMARY KEY NOT NULL,
     "todo_text" VARCHAR(255) NOT NULL,
-    "created_date_time" TIMESTAMP DEFAULT NOW()::date,
-    "completed_date_time" TIMESTAMP DEFAULT NULL
+    "created_date_time" TIMESTAMPTZ DEFAULT NOW()::date,
+    "completed_date_time" TIMESTAMPTZ DEFAULT NULL
 );
 
+-- Tables created before the timestamps were TIMESTAMPTZ hold the times as UTC local
+-- date-times; converts them once
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns WHERE table_name = 'todo'
+               AND column_name = 'created_date_time' AND data_type = 'timestamp without time zone') THEN
+        ALTER TABLE todo
+            ALTER COLUMN "created_date_time" TYPE TIMESTAMPTZ USING "created_date_time" AT TIME ZONE 'UTC',
+            ALTER COLUMN "completed_date_time" TYPE TIMESTAMPTZ USING "completed_date_time" AT TIME ZONE 'UTC';
+    END IF;
+END $$;
+
+-- Supports the keyset (cursor) pagination of GET /api/todos/
+CREATE INDEX IF NOT EXISTS todo_created_date_time_id_idx ON todo ("created_date_time" DESC, "id" DESC);
+
 -- INSERT INTO todo ("id", "todo_text", "created_date_time") VALUES ('00000000000000000000000000000001','Create Stark Enterprises','2011-12-30 15:27:25-07') ON CONFLICT DO NOTHING;
 -- INSERT INTO todo ("id", "todo_text", "created_date_time") VALUES ('00000000000000000000000000000002','Invent the first Iron Man Suit','2012-03-08 13:53:25-07') ON CONFLICT DO NOTHING;
 -- INSERT INTO todo ("id", "todo_text", "created_date_time") VALUES ('00000000000000000000000000000003','Become a Hero','2013-01-08 15:14:25-07') ON CONFLICT DO NOTHING;
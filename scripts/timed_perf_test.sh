@@ -0,0 +1,44 @@
+#!/bin/bash
+
+# Same load as start_simple_perf_test.sh (50 processes requesting the todo list
+# page in a loop), but for a fixed time; prints the number of requests served,
+# so runs before and after a change can be compared.
+#   ./timed_perf_test.sh [url] [seconds] [processes]
+
+URL=${1:-http://mabr-tiny-java-ci2.eastus.azurecontainer.io/}
+DURATION=${2:-60}
+PROCESSES=${3:-50}
+
+RESULT_DIR=$(mktemp -d)
+END=$((SECONDS + DURATION))
+
+for (( p=1; p<=PROCESSES; p++ ))
+do
+   (
+      count=0
+      errors=0
+      while [ $SECONDS -lt $END ]
+      do
+         status=$(curl -s -o /dev/null -w "%{http_code}" -X GET "$URL")
+         if [ "$status" = "200" ]; then
+            count=$((count + 1))
+         else
+            errors=$((errors + 1))
+         fi
+      done
+      echo "$count $errors" > "$RESULT_DIR/$p"
+   ) &
+done
+wait
+
+TOTAL=0
+ERRORS=0
+for f in "$RESULT_DIR"/*
+do
+   read count errors < "$f"
+   TOTAL=$((TOTAL + count))
+   ERRORS=$((ERRORS + errors))
+done
+rm -rf "$RESULT_DIR"
+
+echo "$PROCESSES processes, $DURATION seconds: $TOTAL OK responses ($((TOTAL / DURATION)) per second), $ERRORS errors"
@@ -1,16 +1,61 @@
 package app.demo.todoapi;
 
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.persistence.EntityManagerFactory;
+import javax.servlet.http.HttpServletRequest;
+import javax.sql.DataSource;
+
+import org.apache.coyote.ProtocolHandler;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 
 import com.azure.identity.AzureCliCredential;
 import com.azure.identity.AzureCliCredentialBuilder;
 import com.azure.identity.ManagedIdentityCredential;
 import com.azure.identity.ManagedIdentityCredentialBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.zaxxer.hikari.HikariDataSource;
 
+import app.demo.todoapi.service.TodoCache;
+import app.demo.todoapi.service.TodoCollectionVersion;
 import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.AsyncLogDispatcher;
+import app.demo.todoapi.utils.DatabasePermitFilter;
+import app.demo.todoapi.utils.HibernateCaches;
+import app.demo.todoapi.utils.IdGenerator;
+import app.demo.todoapi.utils.RandomUuidGenerator;
+import app.demo.todoapi.utils.TodoJson;
+import app.demo.todoapi.utils.UuidV7Generator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 
 @Configuration
 @ConfigurationProperties(prefix = "app.demo.todoapi")
@@ -20,6 +65,85 @@ public class AppConfig {
     private String applicationClientId;
     private String loadDemoData;
     private String debugAuthToken;
+    private int todoListDefaultLimit = 50;
+    private int todoListMaxLimit = 500;
+    private long todoCacheMaxSize = 10000;
+    private long todoCacheTtlSeconds = 60;
+    private String etagEnabled;
+    private String idGenerator;
+    private long healthCheckIntervalSeconds = 10;
+    private long healthCheckTtlSeconds = 30;
+    private int healthCheckTimeoutSeconds = 2;
+    private String executionMode = "platform";
+    private int dbPermits = 0;
+    private long dbPermitTimeoutMillis = 5000;
+    private String hibernateCacheEnabled;
+    private String hibernateQueryCacheEnabled;
+    private String jsonDatesAsEpochMillis = "false";
+    private long hibernateCacheMaxSize = 10000;
+    private long hibernateQueryCacheMaxSize = 100;
+    private long hibernateCacheTtlSeconds = 300;
+    private int logQueueCapacity = 8192;
+    private String logDropPolicy = "drop-newest";
+    private long logBlockTimeoutMillis = 100;
+
+    // Boot registers Module beans with its ObjectMapper, which the HTTP message
+    // converters and codecs use
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // Dates are read from ISO-8601 strings and from epoch milliseconds alike. With
+    // json-dates-as-epoch-millis they are written as epoch milliseconds too, the compact
+    // form of the todoweb wire format (todo.js reads both)
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jsonDatesCustomizer() {
+        return builder -> {
+            builder.featuresToDisable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+            if (getJsonDatesAsEpochMillis()) {
+                builder.featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+                builder.featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+            }
+        };
+    }
+
+    // Smile (binary JSON) for clients asking for application/x-jackson-smile, which
+    // todoweb does by default; browsers keep getting JSON. Boot adds converter beans
+    // to the MVC converters, and applies codec customizers to the WebFlux codecs of
+    // the r2dbc profile. The builder is a new one per injection point, configured as
+    // Spring's ObjectMapper
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(TodoJson.createSmileMapper(builder));
+    }
+
+    @Bean
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        var smileMapper = TodoJson.createSmileMapper(builder);
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+        };
+    }
+
+    // The toString() of the todo types serializes with the same mapper (see TodoJson)
+    @Bean
+    public InitializingBean todoJsonInitializer(ObjectMapper objectMapper) {
+        return () -> TodoJson.setObjectMapper(objectMapper);
+    }
+
+    // AppLogger's events are written on a background thread from here on; log-drop-policy
+    // (drop-newest, drop-oldest or block) decides what happens when the queue is full
+    @Bean
+    public AsyncLogDispatcher asyncLogDispatcher() {
+        LOGGER.debug("Logging through a queue of {} events (drop policy '{}')", logQueueCapacity, logDropPolicy);
+
+        var dispatcher = new AsyncLogDispatcher(logQueueCapacity, AsyncLogDispatcher.DropPolicy.parse(logDropPolicy),
+                logBlockTimeoutMillis);
+        AppLogger.setDispatcher(dispatcher);
+        return dispatcher;
+    }
 
     // Token identity for AAD integration while running on local machine
     @Bean
@@ -33,12 +157,166 @@ public class AppConfig {
     @Profile({ "test-mi", "prod-mi" })
     public ManagedIdentityCredential managedIdentityCredentialTest() {
 
-        LOGGER.debug(String.format("Connecting to the database using Application ClientID '%s'", applicationClientId));
+        LOGGER.debug("Connecting to the database using Application ClientID '{}'", applicationClientId);
         return new ManagedIdentityCredentialBuilder()
                 .clientId(applicationClientId)
                 .build();
     }
 
+    // Boot backs off its DataSource once there is an R2DBC ConnectionFactory; with the
+    // r2dbc profile JPA (schema, demo data, the readiness check) still needs one,
+    // configured from spring.datasource as Boot's would be
+    @Bean
+    @Profile("r2dbc")
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties r2dbcDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @Profile("r2dbc")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource r2dbcDataSource(DataSourceProperties r2dbcDataSourceProperties) {
+        return r2dbcDataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // Primary keys of new Todos; time-ordered UUIDv7 unless 'v4' (random) is configured
+    @Bean
+    public IdGenerator idGenerator() {
+        if (idGenerator != null && idGenerator.toLowerCase().trim().equals("v4")) {
+            LOGGER.debug("Using random (v4) UUIDs for new Todos");
+            return new RandomUuidGenerator();
+        }
+        LOGGER.debug("Using time-ordered (v7) UUIDs for new Todos");
+        return new UuidV7Generator();
+    }
+
+    // execution-mode: virtual serves each request on a new virtual thread instead of
+    // Tomcat's platform thread pool (server.tomcat.threads.max). Needs Java 21; on an
+    // older runtime the platform threads are kept
+    @Bean
+    @ConditionalOnProperty(prefix = "app.demo.todoapi", name = "execution-mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> {
+            // The build targets Java 11, so the Java 21 API is looked up by reflection
+            ExecutorService executor;
+            try {
+                executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (Exception ex) {
+                LOGGER.error(String.format(
+                        "Virtual threads are not available in Java %s, serving requests on platform threads",
+                        System.getProperty("java.specification.version")));
+                return;
+            }
+            LOGGER.debug("Serving requests on virtual threads");
+            protocolHandler.setExecutor(executor);
+        };
+    }
+
+    // Bounds the Todo requests running at once to the connection pool size when the
+    // request threads no longer do (see DatabasePermitFilter). /api/version does not
+    // touch the database and is not filtered at all
+    @Bean
+    @ConditionalOnProperty(prefix = "app.demo.todoapi", name = "execution-mode", havingValue = "virtual")
+    public FilterRegistrationBean<DatabasePermitFilter> databasePermitFilter(DataSource dataSource,
+            MeterRegistry meterRegistry, TodoCollectionVersion todoCollectionVersion, TodoCache todoCache) {
+        int permitCount = dbPermits > 0 ? dbPermits : getMaximumPoolSize(dataSource);
+        LOGGER.debug("Limiting API requests to {} database permits (timeout {} ms)", permitCount,
+                dbPermitTimeoutMillis);
+
+        var registration = new FilterRegistrationBean<DatabasePermitFilter>(
+                new DatabasePermitFilter(permitCount, dbPermitTimeoutMillis, meterRegistry,
+                        request -> !isServedWithoutDatabase(request, todoCollectionVersion, todoCache)));
+        registration.addUrlPatterns("/api/todos", "/api/todos/*");
+        return registration;
+    }
+
+    // GETs answered with 304 from the ETags, and single Todos in the TodoCache, are
+    // served without a connection. The check is a snapshot: an entry evicted right
+    // after it only means one more request on the pool than there are permits
+    private static boolean isServedWithoutDatabase(HttpServletRequest request,
+            TodoCollectionVersion todoCollectionVersion, TodoCache todoCache) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return false;
+        }
+        var representation = TodoJson.getRepresentation(request.getHeader(HttpHeaders.ACCEPT));
+        var ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        var path = request.getRequestURI().substring(request.getContextPath().length() + "/api/todos".length());
+
+        if (path.isEmpty() || path.equals("/")) {
+            // Streamed exports ignore If-None-Match
+            return request.getParameter("stream") == null
+                    && todoCollectionVersion.matches(ifNoneMatch, todoCollectionVersion.getListETag(representation));
+        }
+        UUID id;
+        try {
+            id = UUID.fromString(path.substring(1));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return todoCollectionVersion.matches(ifNoneMatch, todoCollectionVersion.getTodoETag(id, representation))
+                || todoCache.getIfPresent(id) != null;
+    }
+
+    // Hibernate's second-level cache for the Todo entity and the sorted list queries
+    // (see HibernateCaches); hibernate-cache-enabled: false turns both off. The list
+    // query cache is only on with hibernate-query-cache-enabled: true, which assumes a
+    // single writer: Hibernate drops cached results on writes made through this
+    // instance's JPA only, writes by other replicas, the r2dbc profile or SQL scripts
+    // stay invisible for up to hibernate-cache-ttl-seconds
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer() {
+        return hibernateProperties -> {
+            if (!getHibernateCacheEnabled()) {
+                LOGGER.debug("Hibernate second-level cache disabled");
+                hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+                return;
+            }
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, getHibernateQueryCacheEnabled());
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, HibernateCaches.createCacheManager(
+                    hibernateCacheMaxSize, hibernateQueryCacheMaxSize, hibernateCacheTtlSeconds));
+            // A region missing from HibernateCaches is a mistake, not something to create
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // todoapi_hibernate_cache_hit_ratio{cache="entity|query"}, from the Hibernate
+    // statistics (hibernate.generate_statistics); NaN until the first lookup
+    @Bean
+    public MeterBinder hibernateCacheHitRatio(EntityManagerFactory entityManagerFactory) {
+        var statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return registry -> {
+            Gauge.builder("todoapi.hibernate.cache.hit.ratio", statistics,
+                    s -> hitRatio(s.getSecondLevelCacheHitCount(), s.getSecondLevelCacheMissCount()))
+                    .tag("cache", "entity")
+                    .register(registry);
+            Gauge.builder("todoapi.hibernate.cache.hit.ratio", statistics,
+                    s -> hitRatio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                    .tag("cache", "query")
+                    .register(registry);
+        };
+    }
+
+    private static double hitRatio(long hits, long misses) {
+        return hits + misses == 0 ? Double.NaN : (double) hits / (hits + misses);
+    }
+
+    // Hikari's default (10) if the data source is not a Hikari pool
+    private static int getMaximumPoolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException ex) {
+            LOGGER.error(String.format("Reading the connection pool size failed (%s)", ex.getMessage()));
+        }
+        return 10;
+    }
+
     public void setApplicationClientId(String applicationClientId) {
         this.applicationClientId = applicationClientId;
     }
@@ -51,6 +329,90 @@ public class AppConfig {
         this.debugAuthToken = debugAuthToken;
     }
 
+    public void setTodoListDefaultLimit(int todoListDefaultLimit) {
+        this.todoListDefaultLimit = todoListDefaultLimit;
+    }
+
+    public void setTodoListMaxLimit(int todoListMaxLimit) {
+        this.todoListMaxLimit = todoListMaxLimit;
+    }
+
+    public void setTodoCacheMaxSize(long todoCacheMaxSize) {
+        this.todoCacheMaxSize = todoCacheMaxSize;
+    }
+
+    public void setTodoCacheTtlSeconds(long todoCacheTtlSeconds) {
+        this.todoCacheTtlSeconds = todoCacheTtlSeconds;
+    }
+
+    public void setEtagEnabled(String etagEnabled) {
+        this.etagEnabled = etagEnabled;
+    }
+
+    public void setIdGenerator(String idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    public void setHealthCheckIntervalSeconds(long healthCheckIntervalSeconds) {
+        this.healthCheckIntervalSeconds = healthCheckIntervalSeconds;
+    }
+
+    public void setHealthCheckTtlSeconds(long healthCheckTtlSeconds) {
+        this.healthCheckTtlSeconds = healthCheckTtlSeconds;
+    }
+
+    public void setHealthCheckTimeoutSeconds(int healthCheckTimeoutSeconds) {
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+    }
+
+    public void setExecutionMode(String executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public void setDbPermits(int dbPermits) {
+        this.dbPermits = dbPermits;
+    }
+
+    public void setDbPermitTimeoutMillis(long dbPermitTimeoutMillis) {
+        this.dbPermitTimeoutMillis = dbPermitTimeoutMillis;
+    }
+
+    public void setHibernateCacheEnabled(String hibernateCacheEnabled) {
+        this.hibernateCacheEnabled = hibernateCacheEnabled;
+    }
+
+    public void setHibernateQueryCacheEnabled(String hibernateQueryCacheEnabled) {
+        this.hibernateQueryCacheEnabled = hibernateQueryCacheEnabled;
+    }
+
+    public void setJsonDatesAsEpochMillis(String jsonDatesAsEpochMillis) {
+        this.jsonDatesAsEpochMillis = jsonDatesAsEpochMillis;
+    }
+
+    public void setHibernateCacheMaxSize(long hibernateCacheMaxSize) {
+        this.hibernateCacheMaxSize = hibernateCacheMaxSize;
+    }
+
+    public void setHibernateQueryCacheMaxSize(long hibernateQueryCacheMaxSize) {
+        this.hibernateQueryCacheMaxSize = hibernateQueryCacheMaxSize;
+    }
+
+    public void setHibernateCacheTtlSeconds(long hibernateCacheTtlSeconds) {
+        this.hibernateCacheTtlSeconds = hibernateCacheTtlSeconds;
+    }
+
+    public void setLogQueueCapacity(int logQueueCapacity) {
+        this.logQueueCapacity = logQueueCapacity;
+    }
+
+    public void setLogDropPolicy(String logDropPolicy) {
+        this.logDropPolicy = logDropPolicy;
+    }
+
+    public void setLogBlockTimeoutMillis(long logBlockTimeoutMillis) {
+        this.logBlockTimeoutMillis = logBlockTimeoutMillis;
+    }
+
     public String getApplicationClientId() {
         return applicationClientId;
     }
@@ -63,6 +425,89 @@ public class AppConfig {
         return debugAuthToken != null && debugAuthToken.toLowerCase().trim().equals("true");
     }
 
+    public int getTodoListDefaultLimit() {
+        return todoListDefaultLimit;
+    }
+
+    public int getTodoListMaxLimit() {
+        return todoListMaxLimit;
+    }
+
+    public long getTodoCacheMaxSize() {
+        return todoCacheMaxSize;
+    }
+
+    public long getTodoCacheTtlSeconds() {
+        return todoCacheTtlSeconds;
+    }
+
+    // Off by default: the version behind the ETags lives in this instance's memory (see
+    // TodoCollectionVersion), only a single todoapi instance writing may turn it on
+    public boolean getEtagEnabled() {
+        return etagEnabled != null && etagEnabled.toLowerCase().trim().equals("true");
+    }
+
+    public long getHealthCheckIntervalSeconds() {
+        return healthCheckIntervalSeconds;
+    }
+
+    public long getHealthCheckTtlSeconds() {
+        return healthCheckTtlSeconds;
+    }
+
+    public int getHealthCheckTimeoutSeconds() {
+        return healthCheckTimeoutSeconds;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getDbPermits() {
+        return dbPermits;
+    }
+
+    public long getDbPermitTimeoutMillis() {
+        return dbPermitTimeoutMillis;
+    }
+
+    public boolean getHibernateCacheEnabled() {
+        return hibernateCacheEnabled == null || !hibernateCacheEnabled.toLowerCase().trim().equals("false");
+    }
+
+    // Off unless set, see hibernateCacheCustomizer()
+    public boolean getHibernateQueryCacheEnabled() {
+        return hibernateQueryCacheEnabled != null && hibernateQueryCacheEnabled.toLowerCase().trim().equals("true");
+    }
+
+    public boolean getJsonDatesAsEpochMillis() {
+        return jsonDatesAsEpochMillis != null && jsonDatesAsEpochMillis.toLowerCase().trim().equals("true");
+    }
+
+    public long getHibernateCacheMaxSize() {
+        return hibernateCacheMaxSize;
+    }
+
+    public long getHibernateQueryCacheMaxSize() {
+        return hibernateQueryCacheMaxSize;
+    }
+
+    public long getHibernateCacheTtlSeconds() {
+        return hibernateCacheTtlSeconds;
+    }
+
+    public int getLogQueueCapacity() {
+        return logQueueCapacity;
+    }
+
+    public String getLogDropPolicy() {
+        return logDropPolicy;
+    }
+
+    public long getLogBlockTimeoutMillis() {
+        return logBlockTimeoutMillis;
+    }
+
     public String getVersion() {
         String version = "Unknown";
         try {
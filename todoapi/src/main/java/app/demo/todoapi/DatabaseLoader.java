@@ -1,6 +1,5 @@
 package app.demo.todoapi;
 
-import java.util.Date;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +8,7 @@ import org.springframework.stereotype.Component;
 
 import app.demo.todoapi.repository.TodoRepository;
 import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.Utils;
 
 @Component
 public class DatabaseLoader implements CommandLineRunner {
@@ -42,7 +42,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000001"),
                                                         "Create Stark Enterprises",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000002"))) {
@@ -50,7 +50,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000002"),
                                                         "Invent the first Iron Man Suit",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000003"))) {
@@ -58,7 +58,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000003"),
                                                         "Become a Hero",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000004"))) {
@@ -66,7 +66,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000004"),
                                                         "Help build S.H.I.E.L.D.",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000005"))) {
@@ -74,7 +74,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000005"),
                                                         "Form the Avengers",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000006"))) {
@@ -82,7 +82,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000006"),
                                                         "Put Hawkeye on the right path",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000007"))) {
@@ -90,7 +90,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000007"),
                                                         "Make Stark Industries a massive success",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000008"))) {
@@ -98,7 +98,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000008"),
                                                         "Keep escaping death in the most Tony Stark way possible",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000009"))) {
@@ -106,7 +106,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000009"),
                                                         "Learn Spring boot",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000010"))) {
@@ -114,7 +114,7 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000010"),
                                                         "Deploy a multi tier Spring boot app into Azure",
-                                                        new Date(),
+                                                        Utils.now(),
                                                         null));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000011"))) {
@@ -122,16 +122,16 @@ public class DatabaseLoader implements CommandLineRunner {
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000011"),
                                                         "Make a hash of everything",
-                                                        new Date(),
-                                                        new Date()));
+                                                        Utils.now(),
+                                                        Utils.now()));
                 }
                 if (!todoRepository.existsById(UUID.fromString("00000000-0000-0000-0000-000000000012"))) {
                         todoRepository.save(
                                         new app.demo.todoapi.entity.Todo(
                                                         UUID.fromString("00000000-0000-0000-0000-000000000012"),
                                                         "Ask Petteri to fix it",
-                                                        new Date(),
-                                                        new Date()));
+                                                        Utils.now(),
+                                                        Utils.now()));
                 }
         }
 
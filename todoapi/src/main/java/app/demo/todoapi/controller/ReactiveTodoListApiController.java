@@ -0,0 +1,326 @@
+package app.demo.todoapi.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.demo.todoapi.AppConfig;
+import app.demo.todoapi.dto.NewTodo;
+import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.dto.TodoListPage;
+import app.demo.todoapi.exception.InvalidPageRequestException;
+import app.demo.todoapi.exception.NewTodoIsEmptyException;
+import app.demo.todoapi.exception.TodoCreationFailedException;
+import app.demo.todoapi.exception.TodoDeleteFailedException;
+import app.demo.todoapi.exception.TodoIsEmptyException;
+import app.demo.todoapi.exception.TodoNotFoundException;
+import app.demo.todoapi.exception.TodosRetrievalFailedException;
+import app.demo.todoapi.service.ReactiveTodoService;
+import app.demo.todoapi.service.TodoCollectionVersion;
+import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.TodoJson;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//The API of TodoListApiController, same URLs, payloads, ETags and status codes, for
+//the r2dbc profile. That profile runs on Netty (see application-r2dbc.yml): requests
+//are served by a few event loop threads and no thread waits for the database
+@RestController
+@Profile("r2dbc")
+@RequestMapping(value = {"/api"})
+public class ReactiveTodoListApiController {
+
+	public static final AppLogger LOGGER = new AppLogger(ReactiveTodoListApiController.class);
+
+	private ReactiveTodoService todoService;
+
+	private TodoCollectionVersion todoCollectionVersion;
+
+	@Autowired
+	public ReactiveTodoListApiController(ReactiveTodoService service, TodoCollectionVersion todoCollectionVersion) {
+		this.todoService = service;
+		this.todoCollectionVersion = todoCollectionVersion;
+	}
+
+	@GetMapping(value = {"todos/"}, params = "limit",
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<TodoListPage>> getTodos(@RequestParam(name = "limit", required = false) Integer limit,
+			@RequestParam(name = "after", required = false) String after,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		LOGGER.debug("Paged TODOs retrieval reactive API called");
+
+		String eTag = todoCollectionVersion.getListETag(TodoJson.getRepresentation(accept));
+		if (todoCollectionVersion.matches(ifNoneMatch, eTag)) {
+			return Mono.just(new ResponseEntity<TodoListPage>(getValidatorHeaders(eTag), HttpStatus.NOT_MODIFIED));
+		}
+
+		return todoService.getTodos(limit, after)
+				.map(retVal -> new ResponseEntity<TodoListPage>(retVal, getValidatorHeaders(eTag), HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof InvalidPageRequestException || ex instanceof TodosRetrievalFailedException) {
+						return Mono.just(new ResponseEntity<TodoListPage>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<TodoListPage>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@GetMapping(value = {"todos/"}, produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<List<Todo>>> getAllTodos(@RequestParam(name = "after", required = false) String after,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		LOGGER.debug("All TODOs retrieval reactive API called");
+
+		if (after != null) {
+			return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+		}
+
+		String eTag = todoCollectionVersion.getListETag(TodoJson.getRepresentation(accept));
+		if (todoCollectionVersion.matches(ifNoneMatch, eTag)) {
+			return Mono.just(new ResponseEntity<List<Todo>>(getValidatorHeaders(eTag), HttpStatus.NOT_MODIFIED));
+		}
+
+		return todoService.getTodos()
+				.collectList()
+				.map(retVal -> new ResponseEntity<List<Todo>>(retVal, getValidatorHeaders(eTag), HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodosRetrievalFailedException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	// The rows are encoded as a JSON array as they arrive from the database; the
+	// status has been sent by the time a failure could be reported
+	@GetMapping(value = {"todos/"}, params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Flux<Todo> streamTodos() {
+
+		LOGGER.debug("Streaming TODOs retrieval reactive API called");
+
+		return todoService.getTodos();
+	}
+
+	@GetMapping(value = "todos/{id}", produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> getTodo(@PathVariable(name = "id", required = true) String id,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		LOGGER.debug("Single TODO retrieval reactive API called");
+
+		return Mono.fromCallable(() -> UUID.fromString(id))
+				.flatMap(todoId -> {
+					String eTag = todoCollectionVersion.getTodoETag(todoId, TodoJson.getRepresentation(accept));
+					if (todoCollectionVersion.matches(ifNoneMatch, eTag)) {
+						return Mono.just(new ResponseEntity<Todo>(getValidatorHeaders(eTag), HttpStatus.NOT_MODIFIED));
+					}
+					return todoService.getTodo(todoId)
+							.map(retVal -> new ResponseEntity<Todo>(retVal, getValidatorHeaders(eTag), HttpStatus.OK));
+				})
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoNotFoundException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.NOT_FOUND));
+					}
+					if (ex instanceof TodosRetrievalFailedException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PostMapping(value = "todos/",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> createTodo(@RequestBody NewTodo newTodo) {
+
+		LOGGER.debug("TODO creation reactive API called");
+
+		if (newTodo == null) {
+			return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+		}
+		return todoService.createTodo(newTodo.getTodoText())
+				.map(retVal -> new ResponseEntity<Todo>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof NewTodoIsEmptyException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					if (ex instanceof TodoCreationFailedException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_GATEWAY));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PostMapping(value = "todos/batch",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<List<Todo>>> createTodos(@RequestBody List<NewTodo> newTodos) {
+
+		LOGGER.debug("TODO batch creation reactive API called");
+
+		if (newTodos == null) {
+			return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+		}
+		var todoTexts = new ArrayList<String>(newTodos.size());
+		for (var newTodo : newTodos) {
+			if (newTodo == null) {
+				return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+			}
+			todoTexts.add(newTodo.getTodoText());
+		}
+		return todoService.createTodos(todoTexts)
+				.map(retVal -> new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof NewTodoIsEmptyException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+					}
+					if (ex instanceof TodoCreationFailedException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_GATEWAY));
+					}
+					return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PatchMapping(value = "todos/{id}",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> updateTodo(@PathVariable(name = "id", required = true) String id, @RequestBody Todo todo) {
+
+		LOGGER.debug("TODO update reactive API called");
+
+		if (todo == null || todo.getTodoText() == null || todo.getTodoText().trim().isEmpty()) {
+			return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+		}
+		return todoService.updateTodo(todo)
+				.map(retVal -> new ResponseEntity<Todo>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoNotFoundException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.NOT_FOUND));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PatchMapping(value = "todos/",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<List<Todo>>> updateTodos(@RequestBody List<Todo> modifiedTodos) {
+
+		LOGGER.debug("TODO LIST update reactive API called using updateTodos(...)");
+
+		return todoService.updateTodos(modifiedTodos)
+				.map(retVal -> new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoIsEmptyException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@DeleteMapping(value = "todos/{id}",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> deleteTodo(@PathVariable(name = "id", required = true) String id) {
+
+		LOGGER.debug("TODO delete reactive API called");
+
+		return Mono.fromCallable(() -> UUID.fromString(id))
+				.flatMap(todoService::deleteTodo)
+				.then(Mono.just(new ResponseEntity<Todo>(HttpStatus.OK)))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoNotFoundException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.NOT_FOUND));
+					}
+					if (ex instanceof TodoDeleteFailedException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@DeleteMapping(value = "todos/", params = "completed=true",
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<Integer>> deleteCompletedTodos() {
+
+		LOGGER.debug("Completed TODOs delete reactive API called");
+
+		return todoService.deleteCompletedTodos()
+				.map(retVal -> new ResponseEntity<Integer>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoDeleteFailedException) {
+						return Mono.just(new ResponseEntity<Integer>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<Integer>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@DeleteMapping(value = "todos/", params = "ids",
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public Mono<ResponseEntity<Integer>> deleteTodos(@RequestParam(name = "ids", required = true) List<UUID> ids) {
+
+		LOGGER.debug("TODO LIST delete reactive API called using deleteTodos(...)");
+
+		return todoService.deleteTodos(ids)
+				.map(retVal -> new ResponseEntity<Integer>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoDeleteFailedException) {
+						return Mono.just(new ResponseEntity<Integer>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<Integer>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@GetMapping(value = {"version"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<String>> getVersion() {
+
+		LOGGER.debug("Version retrieval reactive API called");
+
+		return Mono.just(new ResponseEntity<String>(new AppConfig().getVersion(), HttpStatus.OK));
+	}
+
+	// The body (and its ETag) depends on the Accept header, JSON or Smile
+	private HttpHeaders getValidatorHeaders(String eTag) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setVary(List.of(HttpHeaders.ACCEPT));
+		if (todoCollectionVersion.isEnabled()) {
+			headers.setETag(eTag);
+			headers.setCacheControl(CacheControl.noCache());
+		}
+		return headers;
+	}
+}
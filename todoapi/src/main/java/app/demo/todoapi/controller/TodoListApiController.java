@@ -1,8 +1,13 @@
 package app.demo.todoapi.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -12,44 +17,106 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.demo.todoapi.AppConfig;
 import app.demo.todoapi.dto.NewTodo;
 import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.dto.TodoListPage;
+import app.demo.todoapi.exception.InvalidPageRequestException;
 import app.demo.todoapi.exception.NewTodoIsEmptyException;
 import app.demo.todoapi.exception.TodoCreationFailedException;
 import app.demo.todoapi.exception.TodoDeleteFailedException;
 import app.demo.todoapi.exception.TodoIsEmptyException;
 import app.demo.todoapi.exception.TodoNotFoundException;
 import app.demo.todoapi.exception.TodosRetrievalFailedException;
+import app.demo.todoapi.service.TodoCollectionVersion;
 import app.demo.todoapi.service.TodoService;
 import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.TodoJson;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
+@Profile("!r2dbc")
 @RequestMapping(value = {"/api"})
 public class TodoListApiController {
 
 	public static final AppLogger LOGGER = new AppLogger(TodoListApiController.class);
 
 	private TodoService todoService;
+
+	private ObjectMapper objectMapper;
+
+	private TodoCollectionVersion todoCollectionVersion;
 	
 	@Autowired 
-	public TodoListApiController(TodoService service) {
+	public TodoListApiController(TodoService service, ObjectMapper objectMapper,
+			TodoCollectionVersion todoCollectionVersion) {
 			this.todoService = service;
+			this.objectMapper = objectMapper;
+			this.todoCollectionVersion = todoCollectionVersion;
 	}
 
 
-	@GetMapping( value = {"todos/"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	// Paged form, opted into with ?limit=..; continuation pages add ?after=.. (the
+	// nextAfter of the previous page)
+	@GetMapping( value = {"todos/"}, params = "limit",
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public ResponseEntity<TodoListPage> getTodos(@RequestParam(name = "limit", required = false) Integer limit,
+			@RequestParam(name = "after", required = false) String after,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
+
+		LOGGER.debug("Paged TODOs retrieval API called");
+
+		String eTag = todoCollectionVersion.getListETag(TodoJson.getRepresentation(accept));
+		if (todoCollectionVersion.matches(ifNoneMatch, eTag)) {
+			return new ResponseEntity<TodoListPage>(getValidatorHeaders(eTag), HttpStatus.NOT_MODIFIED);
+		}
+
+		TodoListPage retVal = null;
+		try {
+			retVal = todoService.getTodos(limit, after);
+		} catch (InvalidPageRequestException ex) {
+			return new ResponseEntity<TodoListPage>(HttpStatus.BAD_REQUEST);
+		} catch (TodosRetrievalFailedException ex) {
+			return new ResponseEntity<TodoListPage>(HttpStatus.BAD_REQUEST);
+		} catch (Exception ex) {
+			return new ResponseEntity<TodoListPage>(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<TodoListPage>(retVal, getValidatorHeaders(eTag), HttpStatus.OK);
+	}
+
+	// Default form, the whole list as a JSON array; a continuation token without a
+	// limit is rejected rather than ignored
+	@GetMapping( value = {"todos/"}, produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
 	@ResponseBody
-	public ResponseEntity<List<Todo>> getTodos() {
+	public ResponseEntity<List<Todo>> getAllTodos(@RequestParam(name = "after", required = false) String after,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
 
 		LOGGER.debug("All TODOs retrieval API called");
 
+		if (after != null) {
+			return new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST);
+		}
+
+		String eTag = todoCollectionVersion.getListETag(TodoJson.getRepresentation(accept));
+		if (todoCollectionVersion.matches(ifNoneMatch, eTag)) {
+			return new ResponseEntity<List<Todo>>(getValidatorHeaders(eTag), HttpStatus.NOT_MODIFIED);
+		}
+
 		List<Todo> retVal = null;
 		try {
 			retVal = todoService.getTodos();
@@ -58,18 +125,54 @@ public class TodoListApiController {
 		} catch (Exception ex) {
 			return new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR);
 		}
-		return new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK);
+		return new ResponseEntity<List<Todo>>(retVal, getValidatorHeaders(eTag), HttpStatus.OK);
 	}
 
-	@GetMapping(value = "todos/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	// Streaming form for exports; writes the todos as a JSON array while they are read
+	// from the database, so the heap use does not depend on the size of the table
+	@GetMapping( value = {"todos/"}, params = "stream=true", produces = MediaType.APPLICATION_JSON_VALUE)
 	@ResponseBody
-	public ResponseEntity<Todo> getTodo(@PathVariable(name = "id", required = true) String id) {
+	public ResponseEntity<StreamingResponseBody> streamTodos() {
+
+		LOGGER.debug("Streaming TODOs retrieval API called");
+
+		StreamingResponseBody retVal = outputStream -> {
+			try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+				generator.writeStartArray();
+				todoService.streamTodos(todo -> {
+					try {
+						generator.writeObject(todo);
+					} catch (IOException ex) {
+						throw new UncheckedIOException(ex);
+					}
+				});
+				generator.writeEndArray();
+			} catch (Exception ex) {
+				// Status and part of the body have been sent already
+				LOGGER.error(String.format("Streaming TODOs failed (%s)", ex.getMessage()), ex);
+				throw ex;
+			}
+		};
+		return new ResponseEntity<StreamingResponseBody>(retVal, HttpStatus.OK);
+	}
+
+	@GetMapping(value = "todos/{id}", produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public ResponseEntity<Todo> getTodo(@PathVariable(name = "id", required = true) String id,
+			@RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) {
 
 		LOGGER.debug("Single TODO retrieval called");
 
 		Todo retVal = null;
+		String eTag = null;
 		try {
-			retVal = todoService.getTodo(UUID.fromString(id));
+			UUID todoId = UUID.fromString(id);
+			eTag = todoCollectionVersion.getTodoETag(todoId, TodoJson.getRepresentation(accept));
+			if (todoCollectionVersion.matches(ifNoneMatch, eTag)) {
+				return new ResponseEntity<Todo>(getValidatorHeaders(eTag), HttpStatus.NOT_MODIFIED);
+			}
+			retVal = todoService.getTodo(todoId);
 		} catch (TodoNotFoundException ex) {
 			return new ResponseEntity<Todo>(HttpStatus.NOT_FOUND);
 		} catch (TodosRetrievalFailedException ex) {
@@ -77,10 +180,12 @@ public class TodoListApiController {
 		} catch (Exception ex) {
 			return new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR);
 		}
-		return new ResponseEntity<Todo>(retVal, HttpStatus.OK);
+		return new ResponseEntity<Todo>(retVal, getValidatorHeaders(eTag), HttpStatus.OK);
 	}
 
-	@PostMapping(value = "todos/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PostMapping(value = "todos/",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
 	@ResponseBody
 	public ResponseEntity<Todo> createTodo(@RequestBody NewTodo newTodo) {
 
@@ -102,7 +207,40 @@ public class TodoListApiController {
 		return new ResponseEntity<Todo>(retVal, HttpStatus.OK);
 	}
 
-	@PatchMapping(value = "todos/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PostMapping(value = "todos/batch",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public ResponseEntity<List<Todo>> createTodos(@RequestBody List<NewTodo> newTodos) {
+
+		LOGGER.debug("TODO batch creation called");
+
+		List<Todo> retVal = null;
+		try {
+			if (newTodos == null) {
+				throw new NewTodoIsEmptyException();
+			}
+			var todoTexts = new ArrayList<String>(newTodos.size());
+			for (var newTodo : newTodos) {
+				if (newTodo == null) {
+					throw new NewTodoIsEmptyException();
+				}
+				todoTexts.add(newTodo.getTodoText());
+			}
+			retVal = todoService.createTodos(todoTexts);
+		} catch (NewTodoIsEmptyException ex) {
+			return new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST);
+		} catch (TodoCreationFailedException ex) {
+			return new ResponseEntity<List<Todo>>(HttpStatus.BAD_GATEWAY);
+		} catch (Exception ex) {
+			return new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK);
+	}
+
+	@PatchMapping(value = "todos/{id}",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
 	@ResponseBody
 	public ResponseEntity<Todo> updateTodo(@PathVariable(name = "id", required = true) String id, @RequestBody Todo todo) {
 
@@ -116,6 +254,8 @@ public class TodoListApiController {
 			retVal = todoService.updateTodo(todo);
 		} catch (NewTodoIsEmptyException ex) {
 			return new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST);
+		} catch (TodoNotFoundException ex) {
+			return new ResponseEntity<Todo>(HttpStatus.NOT_FOUND);
 		} catch (TodoCreationFailedException ex) {
 			return new ResponseEntity<Todo>(HttpStatus.BAD_GATEWAY);
 		} catch (Exception ex) {
@@ -124,7 +264,9 @@ public class TodoListApiController {
 		return new ResponseEntity<Todo>(retVal, HttpStatus.OK);
 	}
 
-	@PatchMapping(value = "todos/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@PatchMapping(value = "todos/",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
 	@ResponseBody
 	public ResponseEntity<List<Todo>> updateTodos(@RequestBody List<Todo> modifiedTodos) {
 
@@ -143,7 +285,9 @@ public class TodoListApiController {
 		return new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK);
 	}
 
-	@DeleteMapping(value = "todos/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@DeleteMapping(value = "todos/{id}",
+			consumes = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE },
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
 	@ResponseBody
 	public ResponseEntity<Todo> deleteTodo(@PathVariable(name = "id", required = true) String id) {
 
@@ -161,6 +305,42 @@ public class TodoListApiController {
 		return new ResponseEntity<Todo>(HttpStatus.OK);
 	}
 
+	@DeleteMapping(value = "todos/", params = "completed=true",
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public ResponseEntity<Integer> deleteCompletedTodos() {
+
+		LOGGER.debug("Completed TODOs delete called");
+
+		int retVal = 0;
+		try {
+			retVal = todoService.deleteCompletedTodos();
+		} catch (TodoDeleteFailedException ex) {
+			return new ResponseEntity<Integer>(HttpStatus.BAD_REQUEST);
+		} catch (Exception ex) {
+			return new ResponseEntity<Integer>(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<Integer>(retVal, HttpStatus.OK);
+	}
+
+	@DeleteMapping(value = "todos/", params = "ids",
+			produces = { MediaType.APPLICATION_JSON_VALUE, TodoJson.APPLICATION_SMILE_VALUE })
+	@ResponseBody
+	public ResponseEntity<Integer> deleteTodos(@RequestParam(name = "ids", required = true) List<UUID> ids) {
+
+		LOGGER.debug("TODO LIST delete called using deleteTodos(...)");
+
+		int retVal = 0;
+		try {
+			retVal = todoService.deleteTodos(ids);
+		} catch (TodoDeleteFailedException ex) {
+			return new ResponseEntity<Integer>(HttpStatus.BAD_REQUEST);
+		} catch (Exception ex) {
+			return new ResponseEntity<Integer>(HttpStatus.INTERNAL_SERVER_ERROR);
+		}
+		return new ResponseEntity<Integer>(retVal, HttpStatus.OK);
+	}
+
 	@GetMapping( value = {"version"}, produces = MediaType.APPLICATION_JSON_VALUE)
 	@ResponseBody
 	public ResponseEntity<String> getVersion() {
@@ -170,4 +350,15 @@ public class TodoListApiController {
 		return new ResponseEntity<String>(new AppConfig().getVersion(), HttpStatus.OK);
 	}
 
+	// The body (and its ETag) depends on the Accept header, JSON or Smile
+	private HttpHeaders getValidatorHeaders(String eTag) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setVary(List.of(HttpHeaders.ACCEPT));
+		if (todoCollectionVersion.isEnabled()) {
+			headers.setETag(eTag);
+			headers.setCacheControl(CacheControl.noCache());
+		}
+		return headers;
+	}
+
 }
\ No newline at end of file
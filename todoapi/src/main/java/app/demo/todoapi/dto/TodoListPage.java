@@ -0,0 +1,72 @@
+package app.demo.todoapi.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.TodoJson;
+import app.demo.todoapi.utils.Utils;
+
+public class TodoListPage {
+
+    public static final AppLogger LOGGER = new AppLogger(TodoListPage.class);
+
+    private List<Todo> todoList;
+
+    private int limit;
+
+    // null when this is the last page
+    private String continuationToken;
+
+    public TodoListPage() {
+        todoList = new ArrayList<Todo>();
+    }
+
+    public TodoListPage(List<Todo> todoList, int limit, String continuationToken) {
+        this.todoList = todoList;
+        this.limit = limit;
+        this.continuationToken = continuationToken;
+    }
+
+    public List<Todo> getTodoList() {
+        return todoList;
+    }
+
+    public void setTodoList(List<Todo> todoList) {
+        this.todoList = todoList;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return TodoJson.writerFor(TodoListPage.class).writeValueAsString(this);
+        } catch (JsonProcessingException ex) {
+            LOGGER.error(String.format("Failed to convert TodoListPage into a string (%s)", ex.getMessage()), ex);
+        }
+        // This is just for the impossible case where the ObjectWriter throws an
+        // exception
+        return "{" +
+                " 'todoList': " + todoList.toString() + ", " +
+                " 'limit': " + limit + ", " +
+                " 'continuationToken': '" + Utils.toJsonValueContent(continuationToken) + "'" +
+                '}';
+    }
+}
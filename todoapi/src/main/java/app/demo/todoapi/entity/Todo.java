@@ -1,20 +1,29 @@
 package app.demo.todoapi.entity;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.TodoJson;
+import app.demo.todoapi.utils.HibernateCaches;
 import app.demo.todoapi.utils.Utils;
 
-import java.util.Date;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.UUID;
 
+//Second-level cached (see HibernateCaches). READ_WRITE locks an entry while its row
+//is being written, so a reader never caches a row that is about to change
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCaches.TODO_REGION)
 public class Todo {
     
     public static final AppLogger LOGGER = new AppLogger(Todo.class);
@@ -23,14 +32,18 @@ public class Todo {
 
     private String todoText;
 
-    private Date createdDateTime;
-    
-    private Date completedDateTime;
+    // timestamptz; an Instant is the same point in time whatever the zone of the JVM
+    // or of the database session
+    @Column(columnDefinition = "timestamp with time zone")
+    private Instant createdDateTime;
+
+    @Column(columnDefinition = "timestamp with time zone")
+    private Instant completedDateTime;
 
     public Todo() {
     }
 
-    public Todo(UUID id, String todoText, Date createdDateTime, Date completedDateTime) {
+    public Todo(UUID id, String todoText, Instant createdDateTime, Instant completedDateTime) {
         this.id = id;
         this.completedDateTime = completedDateTime;
         this.createdDateTime = createdDateTime;
@@ -52,12 +65,9 @@ public class Todo {
             return false;
         Todo todo = (Todo) o;
         return Objects.equals(id, todo.id) &&
-                ((createdDateTime == null && todo.createdDateTime == null)
-                        || (createdDateTime != null && createdDateTime.compareTo(todo.createdDateTime) == 0))
-                &&
+                Objects.equals(createdDateTime, todo.createdDateTime) &&
                 Objects.equals(todoText, todo.todoText) &&
-                ((completedDateTime == null && todo.completedDateTime == null)
-                        || (completedDateTime != null && completedDateTime.compareTo(todo.completedDateTime) == 0));
+                Objects.equals(completedDateTime, todo.completedDateTime);
     }
 
     @Override
@@ -82,30 +92,30 @@ public class Todo {
         this.todoText = todoText;
     }
 
-    public Date getCreatedDateTime() {
+    public Instant getCreatedDateTime() {
         return createdDateTime;
     }
 
-    public void setCreatedDateTime(Date createdDateTime) {
+    public void setCreatedDateTime(Instant createdDateTime) {
         this.createdDateTime = createdDateTime;
     }
 
-    public Date getCompletedDateTime() {
+    public Instant getCompletedDateTime() {
         return completedDateTime;
     }
 
-    public void setCompletedDateTime(Date completedDateTime) {
+    public void setCompletedDateTime(Instant completedDateTime) {
         this.completedDateTime = completedDateTime;
     }
 
     @Override
     public String toString() {
         try {
-            return new ObjectMapper().writeValueAsString(this);
+            return TodoJson.writerFor(Todo.class).writeValueAsString(this);
         } catch (JsonProcessingException ex) {
             LOGGER.error(String.format("Failed to convert Todo into a string (%s)", ex.getMessage()), ex);
         }
-        // This is just for the impossible case where the ObjectMapper throws an
+        // This is just for the impossible case where the ObjectWriter throws an
         // exception
         return "{" +
                 "id=" + id +
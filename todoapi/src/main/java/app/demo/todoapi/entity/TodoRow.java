@@ -0,0 +1,57 @@
+package app.demo.todoapi.entity;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+//The todo table as read by ReactiveTodoRepository (r2dbc profile). The timestamps are
+//timestamptz columns, which both R2DBC drivers map to OffsetDateTime
+@Table("todo")
+public class TodoRow {
+
+    @Id
+    private UUID id;
+
+    private String todoText;
+
+    private OffsetDateTime createdDateTime;
+
+    private OffsetDateTime completedDateTime;
+
+    public TodoRow() {
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTodoText() {
+        return todoText;
+    }
+
+    public void setTodoText(String todoText) {
+        this.todoText = todoText;
+    }
+
+    public OffsetDateTime getCreatedDateTime() {
+        return createdDateTime;
+    }
+
+    public void setCreatedDateTime(OffsetDateTime createdDateTime) {
+        this.createdDateTime = createdDateTime;
+    }
+
+    public OffsetDateTime getCompletedDateTime() {
+        return completedDateTime;
+    }
+
+    public void setCompletedDateTime(OffsetDateTime completedDateTime) {
+        this.completedDateTime = completedDateTime;
+    }
+}
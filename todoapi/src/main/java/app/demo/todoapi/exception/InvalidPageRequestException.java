@@ -0,0 +1,14 @@
+package app.demo.todoapi.exception;
+
+public class InvalidPageRequestException extends RuntimeException{
+    private String technicalDetail;
+
+    public InvalidPageRequestException(String technicalDetail) {
+        super(String.format("Invalid page request"));
+        this.technicalDetail = technicalDetail;
+    }
+
+    public String getTechnicalDetail() {
+        return technicalDetail;
+    }
+}
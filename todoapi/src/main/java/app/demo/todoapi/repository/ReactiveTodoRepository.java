@@ -0,0 +1,81 @@
+package app.demo.todoapi.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import app.demo.todoapi.entity.TodoRow;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//R2DBC counterpart of TodoRepository, only created with the r2dbc profile (the R2DBC
+//auto-configuration is excluded otherwise, see application.yml). The statements are
+//the SQL forms of TodoRepository's JPQL, so both work on the same table
+public interface ReactiveTodoRepository extends R2dbcRepository<TodoRow, UUID> {
+
+    String SELECT_TODO = "SELECT id, todo_text, created_date_time, completed_date_time FROM todo ";
+
+    String ORDER_BY_NEWEST = " ORDER BY created_date_time DESC, id DESC";
+
+    @Query(SELECT_TODO + ORDER_BY_NEWEST)
+    Flux<TodoRow> findAllTodos();
+
+    @Query(SELECT_TODO + "WHERE id IN (:ids)")
+    Flux<TodoRow> findTodosByIds(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pagination; (created_date_time, id) is the sort key
+    @Query(SELECT_TODO + ORDER_BY_NEWEST + " LIMIT :limit")
+    Flux<TodoRow> findFirstPage(@Param("limit") int limit);
+
+    @Query(SELECT_TODO + "WHERE created_date_time < :createdDateTime "
+            + "OR (created_date_time = :createdDateTime AND id < :id)" + ORDER_BY_NEWEST + " LIMIT :limit")
+    Flux<TodoRow> findPageAfter(@Param("createdDateTime") OffsetDateTime createdDateTime, @Param("id") UUID id,
+            @Param("limit") int limit);
+
+    // save(..) would issue an UPDATE, the ids are assigned before the insert
+    @Modifying
+    @Query("INSERT INTO todo (id, todo_text, created_date_time) VALUES (:id, :todoText, :createdDateTime)")
+    Mono<Integer> insertTodo(@Param("id") UUID id, @Param("todoText") String todoText,
+            @Param("createdDateTime") OffsetDateTime createdDateTime);
+
+    @Modifying
+    @Query("UPDATE todo SET todo_text = :todoText, completed_date_time = :completedDateTime WHERE id = :id")
+    Mono<Integer> updateTodo(@Param("id") UUID id, @Param("todoText") String todoText,
+            @Param("completedDateTime") OffsetDateTime completedDateTime);
+
+    @Modifying
+    @Query("UPDATE todo SET todo_text = :todoText WHERE id = :id AND todo_text <> :todoText")
+    Mono<Integer> updateTodoText(@Param("id") UUID id, @Param("todoText") String todoText);
+
+    @Modifying
+    @Query("UPDATE todo SET completed_date_time = :completedDateTime "
+            + "WHERE id IN (:ids) AND completed_date_time IS NULL")
+    Mono<Integer> completeTodos(@Param("ids") Collection<UUID> ids,
+            @Param("completedDateTime") OffsetDateTime completedDateTime);
+
+    @Modifying
+    @Query("UPDATE todo SET completed_date_time = NULL WHERE id IN (:ids) AND completed_date_time IS NOT NULL")
+    Mono<Integer> reopenTodos(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("UPDATE todo SET completed_date_time = :completedDateTime WHERE id IN (:ids)")
+    Mono<Integer> setCompletedDateTime(@Param("ids") Collection<UUID> ids,
+            @Param("completedDateTime") OffsetDateTime completedDateTime);
+
+    @Modifying
+    @Query("DELETE FROM todo WHERE id = :id")
+    Mono<Integer> deleteTodoById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("DELETE FROM todo WHERE id IN (:ids)")
+    Mono<Integer> deleteTodosByIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM todo WHERE completed_date_time IS NOT NULL")
+    Mono<Integer> deleteCompletedTodos();
+}
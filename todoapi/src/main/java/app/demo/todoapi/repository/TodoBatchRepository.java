@@ -0,0 +1,27 @@
+package app.demo.todoapi.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import app.demo.todoapi.entity.Todo;
+
+// Custom fragment of TodoRepository for statements Hibernate can not batch
+// (JPQL bulk updates are executed one by one) or can not express (UPDATE ... RETURNING)
+public interface TodoBatchRepository {
+    // Set-based list updates; each returns the rows it changed, rows already in the
+    // requested state are neither written nor returned
+    List<Todo> completeTodos(Collection<UUID> ids, Instant completedDateTime);
+
+    List<Todo> reopenTodos(Collection<UUID> ids);
+
+    List<Todo> setCompletedDateTime(Collection<UUID> ids, Instant completedDateTime);
+
+    List<Todo> updateTodoTexts(Map<UUID, String> todoTexts);
+
+    // Empty if the Todo does not exist
+    Optional<Todo> updateTodo(UUID id, String todoText, Instant completedDateTime);
+}
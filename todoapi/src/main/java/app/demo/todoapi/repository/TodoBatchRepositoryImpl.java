@@ -0,0 +1,212 @@
+package app.demo.todoapi.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import app.demo.todoapi.entity.Todo;
+import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.HibernateCaches;
+
+public class TodoBatchRepositoryImpl implements TodoBatchRepository {
+
+    public static final AppLogger LOGGER = new AppLogger(TodoBatchRepositoryImpl.class);
+
+    private static final String TODO_COLUMNS = "id, todo_text, created_date_time, completed_date_time";
+
+    private static final String UPDATE_TODO_SQL = "UPDATE todo SET todo_text = ?, completed_date_time = ? WHERE id = ?";
+
+    // %s: the placeholders of the id list
+    private static final String COMPLETE_TODOS_SQL = "UPDATE todo SET completed_date_time = ? "
+            + "WHERE id IN (%s) AND completed_date_time IS NULL";
+    private static final String REOPEN_TODOS_SQL = "UPDATE todo SET completed_date_time = NULL "
+            + "WHERE id IN (%s) AND completed_date_time IS NOT NULL";
+    private static final String SET_COMPLETED_DATE_TIME_SQL = "UPDATE todo SET completed_date_time = ? "
+            + "WHERE id IN (%s) AND (completed_date_time IS NULL OR completed_date_time <> ?)";
+    // %1$s: CASE id WHEN ? THEN ? ... END, the new text of each id
+    private static final String UPDATE_TODO_TEXTS_SQL = "UPDATE todo SET todo_text = %1$s "
+            + "WHERE id IN (%2$s) AND todo_text <> %1$s";
+    private static final String SELECT_TODOS_SQL = "SELECT " + TODO_COLUMNS + " FROM todo WHERE id IN (%s)";
+
+    private volatile String databaseProductName = null;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public TodoBatchRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    // The statements below run in the caller's transaction, one per call; the caller
+    // keeps the id lists short enough for the bind parameter limits
+    @Override
+    public List<Todo> completeTodos(Collection<UUID> ids, Instant completedDateTime) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<Todo>();
+        }
+        var args = new ArrayList<Object>();
+        args.add(toParameter(completedDateTime));
+        args.addAll(ids);
+        return updateReturning(String.format(COMPLETE_TODOS_SQL, placeholders(ids.size())), ids, args.toArray());
+    }
+
+    @Override
+    public List<Todo> reopenTodos(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<Todo>();
+        }
+        return updateReturning(String.format(REOPEN_TODOS_SQL, placeholders(ids.size())), ids, ids.toArray());
+    }
+
+    @Override
+    public List<Todo> setCompletedDateTime(Collection<UUID> ids, Instant completedDateTime) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<Todo>();
+        }
+        var args = new ArrayList<Object>();
+        args.add(toParameter(completedDateTime));
+        args.addAll(ids);
+        args.add(toParameter(completedDateTime));
+        return updateReturning(String.format(SET_COMPLETED_DATE_TIME_SQL, placeholders(ids.size())), ids,
+                args.toArray());
+    }
+
+    // All texts in one statement, a CASE over the ids
+    @Override
+    public List<Todo> updateTodoTexts(Map<UUID, String> todoTexts) {
+        if (todoTexts == null || todoTexts.isEmpty()) {
+            return new ArrayList<Todo>();
+        }
+
+        var ids = new ArrayList<UUID>(todoTexts.size());
+        var newTexts = new StringBuilder("CASE id");
+        var newTextArgs = new ArrayList<Object>(todoTexts.size() * 2);
+        for (var e : todoTexts.entrySet()) {
+            ids.add(e.getKey());
+            newTexts.append(" WHEN ? THEN CAST(? AS VARCHAR)");
+            newTextArgs.add(e.getKey());
+            newTextArgs.add(e.getValue());
+        }
+        newTexts.append(" END");
+
+        var args = new ArrayList<Object>(newTextArgs);
+        args.addAll(ids);
+        args.addAll(newTextArgs);
+        var updatedTodos = updateReturning(String.format(UPDATE_TODO_TEXTS_SQL, newTexts, placeholders(ids.size())),
+                ids, args.toArray());
+
+        LOGGER.debug("Updated texts of {} TODOs in one statement ({} requested)", updatedTodos.size(),
+                todoTexts.size());
+
+        return updatedTodos;
+    }
+
+    // One conditional UPDATE instead of findById(..) + save(..); the returned row
+    // tells whether the Todo exists
+    @Override
+    public Optional<Todo> updateTodo(UUID id, String todoText, Instant completedDateTime) {
+        var updatedTodos = updateReturning(UPDATE_TODO_SQL, List.of(id),
+                new Object[] { todoText, toParameter(completedDateTime), id });
+        return updatedTodos.isEmpty() ? Optional.empty() : Optional.of(updatedTodos.get(0));
+    }
+
+    // A single round trip returning the updated rows: UPDATE ... RETURNING on
+    // PostgreSQL, SELECT ... FROM FINAL TABLE (UPDATE ...) on H2. Other databases run
+    // the UPDATE and read the addressed rows afterwards, which may then include rows
+    // the UPDATE left as they were. No managed entity is involved
+    private List<Todo> updateReturning(String updateSql, Collection<UUID> ids, Object[] args) {
+        List<Todo> retVal;
+        String productName = getDatabaseProductName();
+        if ("PostgreSQL".equals(productName)) {
+            retVal = jdbcTemplate.query(updateSql + " RETURNING " + TODO_COLUMNS, TodoBatchRepositoryImpl::mapTodo,
+                    args);
+        } else if ("H2".equals(productName)) {
+            retVal = jdbcTemplate.query("SELECT " + TODO_COLUMNS + " FROM FINAL TABLE (" + updateSql + ")",
+                    TodoBatchRepositoryImpl::mapTodo, args);
+        } else {
+            int updatedRows = jdbcTemplate.update(updateSql, args);
+            retVal = updatedRows == 0
+                    ? new ArrayList<Todo>()
+                    : jdbcTemplate.query(String.format(SELECT_TODOS_SQL, placeholders(ids.size())),
+                            TodoBatchRepositoryImpl::mapTodo, ids.toArray());
+        }
+        evictCached(ids);
+        return retVal;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static SqlParameterValue toParameter(Instant instant) {
+        return new SqlParameterValue(Types.TIMESTAMP_WITH_TIMEZONE,
+                instant == null ? null : instant.atOffset(ZoneOffset.UTC));
+    }
+
+    // The statements here bypass Hibernate, so its second-level cache does not see
+    // them: the Todo entries and the cached list queries are evicted explicitly. As
+    // in TodoCache, once more after the transaction, since a concurrent reader may
+    // cache the old row until the commit
+    private void evictCached(Collection<UUID> ids) {
+        var cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        Runnable eviction = () -> {
+            for (var id : ids) {
+                cache.evictEntityData(Todo.class, id);
+            }
+            cache.evictQueryRegion(HibernateCaches.TODO_LIST_QUERY_REGION);
+        };
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private String getDatabaseProductName() {
+        if (databaseProductName == null) {
+            databaseProductName = jdbcTemplate
+                    .execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+            LOGGER.debug("Database product name: '{}'", databaseProductName);
+        }
+        return databaseProductName;
+    }
+
+    private static Todo mapTodo(ResultSet rs, int rowNum) throws SQLException {
+        return new Todo(rs.getObject("id", UUID.class), rs.getString("todo_text"),
+                getInstant(rs, "created_date_time"), getInstant(rs, "completed_date_time"));
+    }
+
+    // JDBC 4.2 maps timestamp with time zone to OffsetDateTime; getTimestamp(..) would
+    // go through the JVM's zone
+    private static Instant getInstant(ResultSet rs, String columnLabel) throws SQLException {
+        var value = rs.getObject(columnLabel, OffsetDateTime.class);
+        return value == null ? null : value.toInstant();
+    }
+}
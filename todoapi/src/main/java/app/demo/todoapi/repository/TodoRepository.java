@@ -1,11 +1,97 @@
 package app.demo.todoapi.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import app.demo.todoapi.entity.Todo;
+import app.demo.todoapi.utils.HibernateCaches;
 
-public interface TodoRepository extends JpaRepository<Todo, UUID> {
+public interface TodoRepository extends JpaRepository<Todo, UUID>, TodoBatchRepository {
     List<Todo> findByTodoText(String infix);
-}
\ No newline at end of file
+
+    // Read paths project straight into dto.Todo; nothing is added to the persistence
+    // context, so there are no entity instances, dirty-checking snapshots or
+    // first-level cache entries for the rows read. Declared query methods do not
+    // inherit SimpleJpaRepository's read only transactions, hence the annotations
+    String SELECT_TODO_DTO = "SELECT new app.demo.todoapi.dto.Todo(t.id, t.todoText, t.createdDateTime, "
+            + "t.completedDateTime) FROM Todo t ";
+
+    String ORDER_BY_NEWEST = " ORDER BY t.createdDateTime DESC, t.id DESC";
+
+    // The sorted list queries are in the query cache; any write to the todo table
+    // through Hibernate invalidates their results, TodoBatchRepositoryImpl evicts
+    // them after its JDBC writes
+    @Transactional(readOnly = true)
+    @QueryHints(value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = HibernateCaches.TODO_LIST_QUERY_REGION) })
+    @Query(SELECT_TODO_DTO + ORDER_BY_NEWEST)
+    List<app.demo.todoapi.dto.Todo> findAllTodos();
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query(SELECT_TODO_DTO + "WHERE t.id = :id")
+    Optional<app.demo.todoapi.dto.Todo> findTodoById(@Param("id") UUID id);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query(SELECT_TODO_DTO + "WHERE t.id IN :ids")
+    List<app.demo.todoapi.dto.Todo> findTodosByIds(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pagination; (createdDateTime, id) is the sort key, the id breaks ties
+    // between todos created within the same millisecond
+    @Transactional(readOnly = true)
+    @QueryHints(value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_CACHE_REGION, value = HibernateCaches.TODO_LIST_QUERY_REGION) })
+    @Query(SELECT_TODO_DTO + ORDER_BY_NEWEST)
+    List<app.demo.todoapi.dto.Todo> findFirstPage(Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true"))
+    @Query(SELECT_TODO_DTO + "WHERE t.createdDateTime < :createdDateTime "
+            + "OR (t.createdDateTime = :createdDateTime AND t.id < :id)" + ORDER_BY_NEWEST)
+    List<app.demo.todoapi.dto.Todo> findPageAfter(@Param("createdDateTime") Instant createdDateTime,
+            @Param("id") UUID id, Pageable pageable);
+
+    // Streams the whole table using a server side cursor; has to be consumed inside
+    // a (read only) transaction
+    @QueryHints(value = {
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true") })
+    @Query(SELECT_TODO_DTO + ORDER_BY_NEWEST)
+    Stream<app.demo.todoapi.dto.Todo> streamAll();
+
+    // Plain DELETE statements; deleteById(..) would load the entity first. The
+    // affected row count tells whether the Todo existed
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Todo t WHERE t.id = :id")
+    int deleteTodoById(@Param("id") UUID id);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Todo t WHERE t.id IN :ids")
+    int deleteTodosByIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Todo t WHERE t.completedDateTime IS NOT NULL")
+    int deleteCompletedTodos();
+}
@@ -0,0 +1,190 @@
+package app.demo.todoapi.service;
+
+import java.sql.Connection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import app.demo.todoapi.AppConfig;
+import app.demo.todoapi.utils.AppLogger;
+
+//Checks the database connectivity on a background thread and keeps the last result,
+//so health probes never touch the database themselves. The check borrows a pooled
+//connection and validates it (Connection.isValid, i.e. a protocol level ping or
+//SELECT 1), which costs the same regardless of the table sizes
+@Component
+public class DatabaseHealthMonitor {
+
+    public static final AppLogger LOGGER = new AppLogger(DatabaseHealthMonitor.class);
+
+    private final DataSource dataSource;
+    private final long intervalSeconds;
+    private final long ttlMillis;
+    private final int timeoutSeconds;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile Result lastResult = null;
+
+    @Autowired
+    public DatabaseHealthMonitor(DataSource dataSource, AppConfig appConfig) {
+        this.dataSource = dataSource;
+        this.intervalSeconds = appConfig.getHealthCheckIntervalSeconds();
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(appConfig.getHealthCheckTtlSeconds());
+        this.timeoutSeconds = appConfig.getHealthCheckTimeoutSeconds();
+    }
+
+    @PostConstruct
+    void start() {
+        LOGGER.debug("Starting the database health check (every {} seconds, TTL {} ms)",
+                intervalSeconds, ttlMillis);
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "database-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public Result check() {
+        long start = System.nanoTime();
+        Result result;
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid(timeoutSeconds)) {
+                result = new Result(true, System.currentTimeMillis(), elapsedMillis(start), null);
+            } else {
+                result = new Result(false, System.currentTimeMillis(), elapsedMillis(start),
+                        String.format("Connection validation did not succeed within %s seconds", timeoutSeconds));
+            }
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Database health check failed (%s)", ex.getMessage()), ex);
+            result = new Result(false, System.currentTimeMillis(), elapsedMillis(start), ex.getMessage());
+        }
+        lastResult = result;
+        return result;
+    }
+
+    // Null until the first check has finished
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    // A check stuck longer than the TTL (e.g. waiting for a connection from an
+    // exhausted pool) must not keep reporting its predecessor's result
+    public boolean isStale(Result result) {
+        return result == null || System.currentTimeMillis() - result.getCheckedAtMillis() > ttlMillis;
+    }
+
+    // Null if the data source is not a Hikari pool (e.g. an embedded test database)
+    // or the pool has not been started yet
+    public PoolStats getPoolStats() {
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return null;
+            }
+            var hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+            var pool = hikariDataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                return null;
+            }
+            return new PoolStats(pool.getActiveConnections(), pool.getIdleConnections(),
+                    pool.getTotalConnections(), hikariDataSource.getMaximumPoolSize(),
+                    pool.getThreadsAwaitingConnection());
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Reading the connection pool statistics failed (%s)", ex.getMessage()));
+            return null;
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+
+    public static class Result {
+
+        private final boolean up;
+        private final long checkedAtMillis;
+        private final long durationMillis;
+        private final String error;
+
+        Result(boolean up, long checkedAtMillis, long durationMillis, String error) {
+            this.up = up;
+            this.checkedAtMillis = checkedAtMillis;
+            this.durationMillis = durationMillis;
+            this.error = error;
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        public long getCheckedAtMillis() {
+            return checkedAtMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    public static class PoolStats {
+
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int max;
+        private final int awaiting;
+
+        PoolStats(int active, int idle, int total, int max, int awaiting) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.max = max;
+            this.awaiting = awaiting;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        public int getAwaiting() {
+            return awaiting;
+        }
+
+        // Every connection is in use and requests are queueing for one
+        public boolean isSaturated() {
+            return active >= max && awaiting > 0;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package app.demo.todoapi.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.dto.TodoListPage;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Non-blocking variant of TodoService (r2dbc profile); failures are signalled through
+//the returned Mono/Flux using the same exceptions TodoService throws
+@Service
+public interface ReactiveTodoService {
+
+    public Flux<Todo> getTodos();
+    public Mono<TodoListPage> getTodos(Integer limit, String continuationToken);
+    public Mono<Todo> getTodo(UUID id);
+    public Mono<Todo> createTodo(String todoText);
+    public Mono<List<Todo>> createTodos(List<String> todoTexts);
+    public Mono<Todo> updateTodo(Todo todo);
+    public Mono<List<Todo>> updateTodos(List<Todo> todos);
+    public Mono<Void> deleteTodo(UUID id);
+    public Mono<Integer> deleteTodos(Collection<UUID> ids);
+    public Mono<Integer> deleteCompletedTodos();
+}
@@ -0,0 +1,402 @@
+package app.demo.todoapi.service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import app.demo.todoapi.AppConfig;
+import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.dto.TodoListPage;
+import app.demo.todoapi.entity.TodoRow;
+import app.demo.todoapi.exception.InvalidPageRequestException;
+import app.demo.todoapi.exception.NewTodoIsEmptyException;
+import app.demo.todoapi.exception.TodoCreationFailedException;
+import app.demo.todoapi.exception.TodoDeleteFailedException;
+import app.demo.todoapi.exception.TodoIdCannotBeEmptyException;
+import app.demo.todoapi.exception.TodoIsEmptyException;
+import app.demo.todoapi.exception.TodoNotFoundException;
+import app.demo.todoapi.exception.TodoUpdateFailedException;
+import app.demo.todoapi.exception.TodosRetrievalFailedException;
+import app.demo.todoapi.repository.ReactiveTodoRepository;
+import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.ContinuationToken;
+import app.demo.todoapi.utils.IdGenerator;
+import app.demo.todoapi.utils.Utils;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Same semantics as TodoServiceImpl (paging, ETag versions, the Todo cache, set-based
+//list updates), on R2DBC. The multi-statement writes run in an R2DBC transaction;
+//its transaction manager is not a bean, so JPA's stays the only TransactionManager
+//that @Transactional can resolve
+@Service
+@Profile("r2dbc")
+public class ReactiveTodoServiceImpl implements ReactiveTodoService {
+
+    public static final AppLogger LOGGER = new AppLogger(ReactiveTodoServiceImpl.class);
+
+    @Autowired
+    private ReactiveTodoRepository repository;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private TodoCollectionVersion todoCollectionVersion;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
+    private final TransactionalOperator transactionalOperator;
+
+    @Autowired
+    public ReactiveTodoServiceImpl(ConnectionFactory connectionFactory) {
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+
+    public Flux<Todo> getTodos() {
+        LOGGER.debug("Retrieving all TODOs asynchronously using getTodos()");
+
+        return repository.findAllTodos()
+                .map(ReactiveTodoServiceImpl::toTodo)
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Retrieving all TODOs failed (%s)", ex.getMessage()));
+                    return new TodosRetrievalFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<TodoListPage> getTodos(Integer limit, String continuationToken) {
+        LOGGER.debug("Retrieving a page of TODOs asynchronously using getTodos({}, '{}')", limit,
+                continuationToken);
+
+        int requestedPageSize = appConfig.getTodoListDefaultLimit();
+        if (limit != null) {
+            if (limit <= 0) {
+                return Mono.error(new InvalidPageRequestException(String.format("Invalid page size limit '%s'", limit)));
+            }
+            requestedPageSize = Math.min(limit, appConfig.getTodoListMaxLimit());
+        }
+        final int pageSize = requestedPageSize;
+
+        ContinuationToken after = null;
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            try {
+                after = ContinuationToken.decode(continuationToken);
+            } catch (IllegalArgumentException ex) {
+                LOGGER.error(String.format("Invalid continuation token received '%s' (%s)", continuationToken,
+                        ex.getMessage()));
+                return Mono.error(new InvalidPageRequestException(ex.getMessage()));
+            }
+        }
+
+        // One extra row tells us whether there is a next page without a count query
+        var rows = after == null
+                ? repository.findFirstPage(pageSize + 1)
+                : repository.findPageAfter(toOffsetDateTime(after.getCreatedDateTime()), after.getId(), pageSize + 1);
+
+        return rows.map(ReactiveTodoServiceImpl::toTodo)
+                .collectList()
+                .map(todoList -> {
+                    String nextContinuationToken = null;
+                    if (todoList.size() > pageSize) {
+                        todoList = new ArrayList<Todo>(todoList.subList(0, pageSize));
+                        var last = todoList.get(todoList.size() - 1);
+                        nextContinuationToken = new ContinuationToken(last.getCreatedDateTime(), last.getId())
+                                .encode();
+                    }
+                    return new TodoListPage(todoList, pageSize, nextContinuationToken);
+                })
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Retrieving a page of TODOs failed (%s)", ex.getMessage()));
+                    return new TodosRetrievalFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Todo> getTodo(UUID id) {
+        LOGGER.debug("Retrieving a TODO asynchronously using getTodo('{}')", id);
+
+        // Taken before the read: a write committing (and invalidating) while the row is
+        // read must keep the old row out of the cache
+        var stamp = todoCache.getStamp();
+        var cachedTodo = todoCache.getIfPresent(id);
+        if (cachedTodo != null) {
+            return Mono.just(cachedTodo);
+        }
+
+        return repository.findById(id)
+                .map(ReactiveTodoServiceImpl::toTodo)
+                .doOnNext(todo -> todoCache.putIfNotInvalidated(todo, stamp))
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Retrieving the TODO '%s' failed (%s)", id, ex.getMessage()));
+                    return new TodosRetrievalFailedException(ex.getMessage());
+                })
+                .switchIfEmpty(Mono.error(() -> new TodoNotFoundException(
+                        String.format("Unable to retrieve Todo '%s'; Todo does not exist (1).", id))));
+    }
+
+    public Mono<Todo> createTodo(String todoText) {
+        if (todoText == null || todoText.isBlank()) {
+            return Mono.error(new NewTodoIsEmptyException());
+        }
+
+        LOGGER.debug("Create a new Todo asynchronously using createTodo('{}')", todoText);
+
+        var todo = new Todo(idGenerator.generate(), todoText, Utils.now(), null, false);
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            return repository.insertTodo(todo.getId(), todo.getTodoText(), toOffsetDateTime(todo.getCreatedDateTime()));
+        })
+                .doFinally(signal -> todoCollectionVersion.increment())
+                .thenReturn(todo)
+                .doOnNext(e -> {
+                    todoCache.put(e);
+                    LOGGER.debug("Created a new Todo with Id '{}'", e.getId());
+                })
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Todo creation failed (%s)", ex.getMessage()));
+                    return new TodoCreationFailedException(ex.getMessage());
+                });
+    }
+
+    // All inserts in one transaction; R2DBC has no JDBC batching, the statements are
+    // sent one after the other on the same connection without waiting in between
+    public Mono<List<Todo>> createTodos(List<String> todoTexts) {
+        if (todoTexts == null || todoTexts.isEmpty()) {
+            return Mono.error(new NewTodoIsEmptyException());
+        }
+        for (var todoText : todoTexts) {
+            if (todoText == null || todoText.isBlank()) {
+                return Mono.error(new NewTodoIsEmptyException());
+            }
+        }
+
+        LOGGER.debug("Create new Todos asynchronously using createTodos(no of Todos: {})",
+                todoTexts.size());
+
+        var todos = new ArrayList<Todo>(todoTexts.size());
+        for (var todoText : todoTexts) {
+            todos.add(new Todo(idGenerator.generate(), todoText, Utils.now(), null, false));
+        }
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            return Flux.fromIterable(todos)
+                    .concatMap(e -> repository.insertTodo(e.getId(), e.getTodoText(),
+                            toOffsetDateTime(e.getCreatedDateTime())))
+                    .then()
+                    .as(transactionalOperator::transactional);
+        })
+                .doFinally(signal -> todoCollectionVersion.increment())
+                .thenReturn((List<Todo>) todos)
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Todos creation failed (%s)", ex.getMessage()));
+                    return new TodoCreationFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Todo> updateTodo(Todo todo) {
+        if (todo == null || todo.getTodoText() == null || todo.getTodoText().isBlank()) {
+            return Mono.error(new TodoIsEmptyException(todo != null ? todo.getId() : null, null));
+        }
+
+        LOGGER.debug("Updating an existing Todo '{}' asynchronously using updateTodo(..)", todo.getId());
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            return repository.updateTodo(todo.getId(), todo.getTodoText(), toOffsetDateTime(todo.getCompletedDateTime()))
+                    .flatMap(updatedRows -> updatedRows == 0
+                            ? Mono.<TodoRow>empty()
+                            : repository.findById(todo.getId()))
+                    .as(transactionalOperator::transactional);
+        })
+                .doFinally(signal -> {
+                    todoCollectionVersion.increment();
+                    todoCache.invalidate(todo.getId());
+                })
+                .map(ReactiveTodoServiceImpl::toTodo)
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Todo update failed (%s)", ex.getMessage()));
+                    return new TodoUpdateFailedException(ex.getMessage());
+                })
+                .switchIfEmpty(Mono.error(() -> new TodoNotFoundException(
+                        String.format("Todo '%s' does not exist.", todo.getId()))));
+    }
+
+    // Set-based like TodoServiceImpl.updateTodos(..): one UPDATE ... WHERE id IN (...)
+    // per target completion state, then the addressed TODOs are read once
+    public Mono<List<Todo>> updateTodos(List<Todo> todos) {
+        if (todos == null || todos.isEmpty()) {
+            return Mono.just(new ArrayList<Todo>());
+        }
+
+        LOGGER.debug("Updating TODOs asynchronously using updateTodos (length: '{}')", todos.size());
+
+        var completeIds = new LinkedHashSet<UUID>();
+        var reopenIds = new LinkedHashSet<UUID>();
+        var completedDateTimeIds = new HashMap<Instant, Set<UUID>>();
+        var todoTexts = new HashMap<UUID, String>();
+        var ids = new LinkedHashSet<UUID>();
+
+        for (var todo : todos) {
+            if (todo == null || todo.getId() == null) {
+                return Mono.error(new TodoIsEmptyException(null, null));
+            }
+            if (todo.getCompleted()) {
+                if (todo.getCompletedDateTime() == null) {
+                    completeIds.add(todo.getId());
+                } else {
+                    completedDateTimeIds.computeIfAbsent(todo.getCompletedDateTime(), k -> new LinkedHashSet<UUID>())
+                            .add(todo.getId());
+                }
+            } else {
+                reopenIds.add(todo.getId());
+            }
+            if (todo.getTodoText() != null) {
+                if (todo.getTodoText().isBlank()) {
+                    return Mono.error(new TodoIsEmptyException(todo.getId(), null));
+                }
+                todoTexts.put(todo.getId(), todo.getTodoText());
+            }
+            ids.add(todo.getId());
+        }
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            var now = toOffsetDateTime(Utils.now());
+
+            var updates = new ArrayList<Mono<Integer>>();
+            for (var chunk : TodoServiceImpl.chunks(completeIds)) {
+                updates.add(repository.completeTodos(chunk, now));
+            }
+            for (var chunk : TodoServiceImpl.chunks(reopenIds)) {
+                updates.add(repository.reopenTodos(chunk));
+            }
+            for (var e : completedDateTimeIds.entrySet()) {
+                for (var chunk : TodoServiceImpl.chunks(e.getValue())) {
+                    updates.add(repository.setCompletedDateTime(chunk, toOffsetDateTime(e.getKey())));
+                }
+            }
+            for (var e : todoTexts.entrySet()) {
+                updates.add(repository.updateTodoText(e.getKey(), e.getValue()));
+            }
+
+            return Flux.concat(updates)
+                    .reduce(0, Integer::sum)
+                    .flatMap(updatedRows -> {
+                        LOGGER.debug("Updated TODOs using updateTodos ({} requested, {} rows changed)",
+                                ids.size(), updatedRows);
+                        return Flux.fromIterable(TodoServiceImpl.chunks(ids))
+                                .concatMap(repository::findTodosByIds)
+                                .map(ReactiveTodoServiceImpl::toTodo)
+                                .collectList();
+                    })
+                    .as(transactionalOperator::transactional);
+        })
+                .doFinally(signal -> {
+                    todoCollectionVersion.increment();
+                    todoCache.invalidateAll(ids);
+                })
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Todos update failed (%s)", ex.getMessage()));
+                    return new TodoUpdateFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Void> deleteTodo(UUID id) {
+        if (id == null) {
+            return Mono.error(new TodoIdCannotBeEmptyException("Todo Id must not be null"));
+        }
+
+        LOGGER.debug("Deleting a TODO asynchronously using deleteTodo('{}')", id);
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            return repository.deleteTodoById(id);
+        })
+                .doFinally(signal -> {
+                    todoCollectionVersion.increment();
+                    todoCache.invalidate(id);
+                })
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Deleting the TODO '%s' failed (%s)", id, ex.getMessage()));
+                    return new TodoDeleteFailedException(ex.getMessage());
+                })
+                .flatMap(deletedRows -> deletedRows == 0
+                        ? Mono.error(new TodoNotFoundException("Unable to retrieve the Todo; Todo does not exist (1)."))
+                        : Mono.<Void>empty());
+    }
+
+    public Mono<Integer> deleteTodos(Collection<UUID> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        LOGGER.debug("Deleting TODOs asynchronously using deleteTodos(no of Todos: {})", ids.size());
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            return Flux.fromIterable(TodoServiceImpl.chunks(ids))
+                    .concatMap(repository::deleteTodosByIds)
+                    .reduce(0, Integer::sum)
+                    .as(transactionalOperator::transactional);
+        })
+                .doFinally(signal -> {
+                    todoCollectionVersion.increment();
+                    todoCache.invalidateAll(ids);
+                })
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Deleting TODOs failed (%s)", ex.getMessage()));
+                    return new TodoDeleteFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Integer> deleteCompletedTodos() {
+        LOGGER.debug("Deleting completed TODOs asynchronously using deleteCompletedTodos()");
+
+        return Mono.defer(() -> {
+            todoCollectionVersion.increment();
+            return repository.deleteCompletedTodos();
+        })
+                .doFinally(signal -> {
+                    todoCollectionVersion.increment();
+                    // The deleted ids are not known
+                    todoCache.invalidateAll();
+                })
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Deleting completed TODOs failed (%s)", ex.getMessage()));
+                    return new TodoDeleteFailedException(ex.getMessage());
+                });
+    }
+
+    private static Todo toTodo(TodoRow row) {
+        return new Todo(row.getId(), row.getTodoText(), toInstant(row.getCreatedDateTime()),
+                toInstant(row.getCompletedDateTime()));
+    }
+
+    // The columns are timestamptz, the offset only matters for the drivers' binding
+    private static OffsetDateTime toOffsetDateTime(Instant instant) {
+        return instant == null ? null : instant.atOffset(ZoneOffset.UTC);
+    }
+
+    private static Instant toInstant(OffsetDateTime offsetDateTime) {
+        return offsetDateTime == null ? null : offsetDateTime.toInstant();
+    }
+}
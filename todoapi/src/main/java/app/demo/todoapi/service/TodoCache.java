@@ -0,0 +1,135 @@
+package app.demo.todoapi.service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import app.demo.todoapi.AppConfig;
+import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.utils.AppLogger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+//Bounded in-process read-through cache for single Todo lookups. Entries expire after
+//a TTL, so other replicas' writes become visible after at most that long; writes
+//going through this instance invalidate immediately
+@Component
+public class TodoCache {
+
+    public static final AppLogger LOGGER = new AppLogger(TodoCache.class);
+
+    public static final String CACHE_NAME = "todos";
+
+    private final Cache<UUID, Todo> cache;
+
+    // Bumped before every invalidation, see putIfNotInvalidated(..)
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public TodoCache(AppConfig appConfig, MeterRegistry meterRegistry) {
+        LOGGER.debug("Creating a Todo cache (max size {}, TTL {} seconds)",
+                appConfig.getTodoCacheMaxSize(), appConfig.getTodoCacheTtlSeconds());
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(appConfig.getTodoCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(appConfig.getTodoCacheTtlSeconds()))
+                .recordStats()
+                .build();
+
+        // cache_gets_total{result="hit|miss"}, cache_evictions_total, cache_size, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    // Loads are atomic per key; an invalidation racing with a load waits for it, so
+    // a value read before a write can not outlive the write's invalidation
+    public Todo get(UUID id, Function<UUID, Todo> loader) {
+        return copyOf(cache.get(id, loader));
+    }
+
+    // For callers that can not block in a loader (ReactiveTodoServiceImpl); null if
+    // the Todo is not cached
+    public Todo getIfPresent(UUID id) {
+        return copyOf(cache.getIfPresent(id));
+    }
+
+    // For a Todo the caller has just written (created)
+    public void put(Todo todo) {
+        if (todo == null || todo.getId() == null) {
+            return;
+        }
+        cache.put(todo.getId(), copyOf(todo));
+    }
+
+    // Taken before a read that is cached with putIfNotInvalidated(..)
+    public long getStamp() {
+        return invalidations.get();
+    }
+
+    // Caches a Todo read outside of get(..), unless anything has been invalidated since
+    // the stamp was taken: the Todo may have been read before that write. The check runs
+    // inside the per-key compute, which an invalidation of the same key waits for, and
+    // invalidations bump the stamp first, so a rejected or a later removed put are the
+    // only outcomes
+    public void putIfNotInvalidated(Todo todo, long stamp) {
+        if (todo == null || todo.getId() == null) {
+            return;
+        }
+        cache.asMap().compute(todo.getId(),
+                (id, cachedTodo) -> invalidations.get() == stamp ? copyOf(todo) : cachedTodo);
+    }
+
+    public void invalidate(UUID id) {
+        if (id == null) {
+            return;
+        }
+        invalidate(() -> cache.invalidate(id));
+    }
+
+    public void invalidateAll(Iterable<UUID> ids) {
+        invalidate(() -> cache.invalidateAll(ids));
+    }
+
+    public void invalidateAll() {
+        invalidate(() -> cache.invalidateAll());
+    }
+
+    private void invalidate(Runnable invalidation) {
+        Runnable stampedInvalidation = () -> {
+            invalidations.incrementAndGet();
+            invalidation.run();
+        };
+        stampedInvalidation.run();
+        afterTransaction(stampedInvalidation);
+    }
+
+    // Inside a transaction a concurrent reader may still load (and cache) the old row
+    // until the commit, so invalidate once more after completion
+    private static void afterTransaction(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    // Callers get their own instance; the cached one is never handed out
+    private static Todo copyOf(Todo todo) {
+        if (todo == null) {
+            return null;
+        }
+        return new Todo(todo.getId(), todo.getTodoText(), todo.getCreatedDateTime(), todo.getCompletedDateTime(),
+                todo.getCompleted());
+    }
+}
@@ -1,11 +1,15 @@
 package app.demo.todoapi.service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import org.springframework.stereotype.Service;
 
 import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.dto.TodoListPage;
+import app.demo.todoapi.exception.InvalidPageRequestException;
 import app.demo.todoapi.exception.NewTodoIsEmptyException;
 import app.demo.todoapi.exception.TodoCreationFailedException;
 import app.demo.todoapi.exception.TodoDeleteFailedException;
@@ -18,9 +22,14 @@ import app.demo.todoapi.exception.TodosRetrievalFailedException;
 public interface TodoService {
 
     public List<Todo> getTodos() throws TodosRetrievalFailedException;
+    public TodoListPage getTodos(Integer limit, String continuationToken) throws TodosRetrievalFailedException, InvalidPageRequestException;
+    public void streamTodos(Consumer<Todo> consumer) throws TodosRetrievalFailedException;
     public Todo getTodo(UUID id) throws TodoNotFoundException, TodosRetrievalFailedException;
     public Todo createTodo(String todoText) throws TodoCreationFailedException, NewTodoIsEmptyException;
+    public List<Todo> createTodos(List<String> todoTexts) throws TodoCreationFailedException, NewTodoIsEmptyException;
     public Todo updateTodo(Todo todo) throws TodoIsEmptyException, TodoUpdateFailedException, TodoNotFoundException;
     public List<Todo> updateTodos(List<Todo> todos) throws TodoIsEmptyException, TodoUpdateFailedException, TodoNotFoundException;
     public void deleteTodo(UUID fromString) throws TodoNotFoundException, TodoDeleteFailedException;
+    public int deleteTodos(Collection<UUID> ids) throws TodoDeleteFailedException;
+    public int deleteCompletedTodos() throws TodoDeleteFailedException;
 }
@@ -1,17 +1,31 @@
 package app.demo.todoapi.service;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import app.demo.todoapi.AppConfig;
 import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.dto.TodoListPage;
+import app.demo.todoapi.exception.InvalidPageRequestException;
 import app.demo.todoapi.exception.NewTodoIsEmptyException;
 import app.demo.todoapi.exception.TodoCreationFailedException;
 import app.demo.todoapi.exception.TodoDeleteFailedException;
@@ -22,6 +36,9 @@ import app.demo.todoapi.exception.TodoUpdateFailedException;
 import app.demo.todoapi.exception.TodosRetrievalFailedException;
 import app.demo.todoapi.repository.TodoRepository;
 import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.ContinuationToken;
+import app.demo.todoapi.utils.IdGenerator;
+import app.demo.todoapi.utils.Utils;
 
 @Service
 public class TodoServiceImpl implements TodoService {
@@ -29,8 +46,39 @@ public class TodoServiceImpl implements TodoService {
     @Autowired
     private TodoRepository repository;
 
+    @Autowired
+    private AppConfig appConfig;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    @Autowired
+    private TodoCollectionVersion todoCollectionVersion;
+
+    @Autowired
+    private IdGenerator idGenerator;
+
     public static final AppLogger LOGGER = new AppLogger(TodoServiceImpl.class);
 
+    private static final int IN_LIST_CHUNK_SIZE = 1000;
+
+    // Flush interval of createTodos(..) when JDBC batching is turned off
+    private static final int DEFAULT_FLUSH_INTERVAL = 50;
+
+    // hibernate.jdbc.batch_size (application.yml) as Hibernate applied it
+    private int jdbcBatchSize;
+
+    @PostConstruct
+    void init() {
+        int batchSize = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions().getJdbcBatchSize();
+        jdbcBatchSize = batchSize > 1 ? batchSize : DEFAULT_FLUSH_INTERVAL;
+        LOGGER.debug("Flushing created TODOs every {} entities", jdbcBatchSize);
+    }
+
     public List<Todo> getTodos() throws TodosRetrievalFailedException {
 
         List<Todo> retVal = null;
@@ -38,13 +86,7 @@ public class TodoServiceImpl implements TodoService {
         LOGGER.debug("Retrieving all TODOs synchronously using getTodos()");
 
         try {
-            var todoEntityList = repository.findAll(Sort.by(Sort.Direction.DESC, "createdDateTime"));
-
-            retVal = new ArrayList<Todo>();
-            for (var e : todoEntityList) {
-                retVal.add(new Todo(e.getId(), e.getTodoText(), e.getCreatedDateTime(), e.getCompletedDateTime(),
-                        e.getCompletedDateTime() != null));
-            }
+            retVal = repository.findAllTodos();
         } catch (Exception ex) {
             LOGGER.error(String.format("Retrieving all TODOs failed (%s)", ex.getMessage()), ex);
             throw new TodosRetrievalFailedException(ex.getMessage());
@@ -55,30 +97,98 @@ public class TodoServiceImpl implements TodoService {
         return retVal;
     }
 
-    public Todo getTodo(UUID id)
-            throws TodoNotFoundException, TodosRetrievalFailedException {
+    public TodoListPage getTodos(Integer limit, String continuationToken)
+            throws TodosRetrievalFailedException, InvalidPageRequestException {
 
-        Todo retVal = null;
+        TodoListPage retVal = null;
 
-        LOGGER.debug(String.format("Retrieving a TODO synchronously using getTodo('%s')", id));
+        LOGGER.debug("Retrieving a page of TODOs synchronously using getTodos({}, '{}')", limit,
+                continuationToken);
 
-        try {
-            var retrievedOptionalTodoEntity = repository.findById(id);
+        int pageSize = appConfig.getTodoListDefaultLimit();
+        if (limit != null) {
+            if (limit <= 0) {
+                throw new InvalidPageRequestException(String.format("Invalid page size limit '%s'", limit));
+            }
+            pageSize = Math.min(limit, appConfig.getTodoListMaxLimit());
+        }
+
+        ContinuationToken after = null;
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            try {
+                after = ContinuationToken.decode(continuationToken);
+            } catch (IllegalArgumentException ex) {
+                LOGGER.error(String.format("Invalid continuation token received '%s' (%s)", continuationToken,
+                        ex.getMessage()));
+                throw new InvalidPageRequestException(ex.getMessage());
+            }
+        }
 
-            if (!retrievedOptionalTodoEntity.isPresent()) {
-                throw new TodoNotFoundException(
-                        String.format("Unable to retrieve Todo '%s'; Todo does not exist (1).", id));
+        try {
+            // One extra row tells us whether there is a next page without a count query
+            var pageRequest = PageRequest.of(0, pageSize + 1);
+            var todoList = after == null
+                    ? repository.findFirstPage(pageRequest)
+                    : repository.findPageAfter(after.getCreatedDateTime(), after.getId(), pageRequest);
+
+            String nextContinuationToken = null;
+            if (todoList.size() > pageSize) {
+                todoList = new ArrayList<Todo>(todoList.subList(0, pageSize));
+                var last = todoList.get(todoList.size() - 1);
+                nextContinuationToken = new ContinuationToken(last.getCreatedDateTime(), last.getId()).encode();
             }
+            retVal = new TodoListPage(todoList, pageSize, nextContinuationToken);
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Retrieving a page of TODOs failed (%s)", ex.getMessage()), ex);
+            throw new TodosRetrievalFailedException(ex.getMessage());
+        }
+
+        LOGGER.debug("Retrieved a page of TODOs synchronously using getTodos(..), no of TODOs: {}",
+                retVal.getTodoList().size());
+
+        return retVal;
+    }
+
+    @Transactional(readOnly = true)
+    public void streamTodos(Consumer<Todo> consumer) throws TodosRetrievalFailedException {
 
-            var retrievedTodoEntity = retrievedOptionalTodoEntity.get();
+        LOGGER.debug("Streaming all TODOs synchronously using streamTodos(..)");
 
-            if (retrievedTodoEntity == null) {
-                throw new TodoNotFoundException(String.format("Unable to retrieve Todo '%s' (2).", id));
+        long count = 0;
+        // Rows are projected into DTOs, so the persistence context does not grow with
+        // the table
+        try (var todoStream = repository.streamAll()) {
+            var iterator = todoStream.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(iterator.next());
+                count++;
             }
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Streaming all TODOs failed after %s TODOs (%s)", count, ex.getMessage()), ex);
+            throw new TodosRetrievalFailedException(ex.getMessage());
+        }
+
+        LOGGER.debug("Streamed all TODOs synchronously using streamTodos(..), no of TODOs: {}", count);
+    }
+
+    public Todo getTodo(UUID id)
+            throws TodoNotFoundException, TodosRetrievalFailedException {
+
+        Todo retVal = null;
+
+        LOGGER.debug("Retrieving a TODO synchronously using getTodo('{}')", id);
+
+        try {
+            retVal = todoCache.get(id, key -> {
+                var retrievedOptionalTodo = repository.findTodoById(key);
+
+                if (!retrievedOptionalTodo.isPresent()) {
+                    throw new TodoNotFoundException(
+                            String.format("Unable to retrieve Todo '%s'; Todo does not exist (1).", key));
+                }
 
-            retVal = new Todo(retrievedTodoEntity.getId(), retrievedTodoEntity.getTodoText(),
-                    retrievedTodoEntity.getCreatedDateTime(), retrievedTodoEntity.getCompletedDateTime(),
-                    retrievedTodoEntity.getCompletedDateTime() != null);
+                return retrievedOptionalTodo.get();
+            });
             
         } catch (TodoNotFoundException ex) {
             throw ex;
@@ -87,7 +197,7 @@ public class TodoServiceImpl implements TodoService {
             throw new TodosRetrievalFailedException(ex.getMessage());
         }
         
-        LOGGER.debug(String.format("Retrieved a TODO synchronously using getTodo('%s')", id));
+        LOGGER.debug("Retrieved a TODO synchronously using getTodo('{}')", id);
 
         return retVal;
     }
@@ -102,17 +212,21 @@ public class TodoServiceImpl implements TodoService {
         }
 
         try {
-            LOGGER.debug(String.format("Create a new Todo synchronously using createTodo('%s')", todoText));
+            LOGGER.debug("Create a new Todo synchronously using createTodo('{}')", todoText);
 
-            var todoEntity = new app.demo.todoapi.entity.Todo(UUID.randomUUID(), todoText, new Date(), null);
+            var todoEntity = new app.demo.todoapi.entity.Todo(idGenerator.generate(), todoText, Utils.now(), null);
 
+            todoCollectionVersion.increment();
             var todoEntitySaved = repository.save(todoEntity);
+            todoCollectionVersion.increment();
 
             todo = new Todo(todoEntitySaved.getId(), todoEntitySaved.getTodoText(),
                     todoEntitySaved.getCreatedDateTime(), todoEntitySaved.getCompletedDateTime(),
                     todoEntitySaved.getCompletedDateTime() != null);
 
-            LOGGER.debug(String.format("Created a new Todo with Id '%s'", todo.getId()));
+            todoCache.put(todo);
+
+            LOGGER.debug("Created a new Todo with Id '{}'", todo.getId());
         } catch (NewTodoIsEmptyException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -122,6 +236,54 @@ public class TodoServiceImpl implements TodoService {
         return todo;
     }
 
+    // Inserts all TODOs in one transaction using JDBC batching. Ids are assigned
+    // UUIDs, so Hibernate does not need a round trip per row to obtain them;
+    // persist(..) is used instead of save(..), which would merge and therefore
+    // SELECT every row before inserting it
+    @Transactional
+    public List<Todo> createTodos(List<String> todoTexts)
+            throws TodoCreationFailedException, NewTodoIsEmptyException {
+
+        if (todoTexts == null || todoTexts.isEmpty()) {
+            throw new NewTodoIsEmptyException();
+        }
+        for (var todoText : todoTexts) {
+            if (todoText == null || todoText.isBlank()) {
+                throw new NewTodoIsEmptyException();
+            }
+        }
+
+        var retVal = new ArrayList<Todo>(todoTexts.size());
+
+        try {
+            LOGGER.debug("Create new Todos synchronously using createTodos(no of Todos: {})",
+                    todoTexts.size());
+
+            todoCollectionVersion.increment();
+            for (var todoText : todoTexts) {
+                var todoEntity = new app.demo.todoapi.entity.Todo(idGenerator.generate(), todoText, Utils.now(), null);
+                entityManager.persist(todoEntity);
+
+                retVal.add(new Todo(todoEntity.getId(), todoEntity.getTodoText(), todoEntity.getCreatedDateTime(),
+                        todoEntity.getCompletedDateTime(), todoEntity.getCompletedDateTime() != null));
+
+                if (retVal.size() % jdbcBatchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.flush();
+            entityManager.clear();
+            todoCollectionVersion.increment();
+
+            LOGGER.debug("Created new Todos using createTodos(no of Todos: {})", retVal.size());
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Todos creation failed (%s)", ex.getMessage()), ex);
+            throw new TodoCreationFailedException(ex.getMessage());
+        }
+        return retVal;
+    }
+
     public Todo updateTodo(Todo todo)
             throws TodoIsEmptyException, TodoUpdateFailedException, TodoNotFoundException {
 
@@ -130,18 +292,20 @@ public class TodoServiceImpl implements TodoService {
             throw new TodoIsEmptyException(todo.getId(), null);
 
         try {
-            LOGGER.debug(String.format("Updating an existing Todo '%s' synchronously using updateTodo(..)", todo.getId()));
+            LOGGER.debug("Updating an existing Todo '{}' synchronously using updateTodo(..)", todo.getId());
 
-            var existingTodoEntityLookup = repository.findById(todo.getId());
+            // A single conditional UPDATE returning the row; no read before the write
+            todoCollectionVersion.increment();
+            var updatedTodoEntityLookup = repository.updateTodo(todo.getId(), todo.getTodoText(),
+                    todo.getCompletedDateTime());
+            todoCollectionVersion.increment();
 
-            if (!existingTodoEntityLookup.isPresent())
-                throw new TodoNotFoundException(String.format("Todo '%s' does not exist.", todo.getId()));
+            todoCache.invalidate(todo.getId());
 
-            var existingTodoEntity = existingTodoEntityLookup.get();
-            existingTodoEntity.setTodoText(todo.getTodoText());
-            existingTodoEntity.setCompletedDateTime(todo.getCompletedDateTime());
+            if (!updatedTodoEntityLookup.isPresent())
+                throw new TodoNotFoundException(String.format("Todo '%s' does not exist.", todo.getId()));
 
-            var savedTodoEntity = repository.save(existingTodoEntity);
+            var savedTodoEntity = updatedTodoEntityLookup.get();
 
             retVal = new Todo(savedTodoEntity.getId(), savedTodoEntity.getTodoText(),
                     savedTodoEntity.getCreatedDateTime(), savedTodoEntity.getCompletedDateTime(),
@@ -157,7 +321,7 @@ public class TodoServiceImpl implements TodoService {
             throw new TodoUpdateFailedException(ex.getMessage());
         }
 
-        LOGGER.debug(String.format("Updated an existing Todo '%s' synchronously using updateTodo(..)", todo.getId()));
+        LOGGER.debug("Updated an existing Todo '{}' synchronously using updateTodo(..)", todo.getId());
 
         return retVal;
     }
@@ -166,15 +330,22 @@ public class TodoServiceImpl implements TodoService {
     public void deleteTodo(UUID id)
             throws TodoNotFoundException, TodoDeleteFailedException, TodoIdCannotBeEmptyException {
 
-        LOGGER.debug(String.format("Deleting a TODO synchronously using deleteTodo('%s')", id));
+        LOGGER.debug("Deleting a TODO synchronously using deleteTodo('{}')", id);
 
         try {
-            if (!repository.existsById(id)) {
-                throw new TodoNotFoundException("Unable to retrieve the Todo; Todo does not exist (1).");
+            if (id == null) {
+                throw new IllegalArgumentException("Todo Id must not be null");
             }
 
-            repository.deleteById(id);
+            todoCollectionVersion.increment();
+            int deletedRows = repository.deleteTodoById(id);
+            todoCollectionVersion.increment();
 
+            todoCache.invalidate(id);
+
+            if (deletedRows == 0) {
+                throw new TodoNotFoundException("Unable to retrieve the Todo; Todo does not exist (1).");
+            }
         } catch (IllegalArgumentException ex) {
             LOGGER.error(String.format("Retrieving the TODO '%s' failed (%s)", id, ex.getMessage()), ex);
             throw new TodoIdCannotBeEmptyException(ex.getMessage());
@@ -184,57 +355,181 @@ public class TodoServiceImpl implements TodoService {
             LOGGER.error(String.format("Retrieving the TODO '%s' failed (%s)", id, ex.getMessage()), ex);
             throw new TodosRetrievalFailedException(ex.getMessage());
         }
-        LOGGER.debug(String.format("Deleted a TODO synchronously using deleteTodo('%s')", id));
+        LOGGER.debug("Deleted a TODO synchronously using deleteTodo('{}')", id);
     }
 
     @Override
+    @Transactional
+    public int deleteTodos(Collection<UUID> ids) throws TodoDeleteFailedException {
+
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        LOGGER.debug("Deleting TODOs synchronously using deleteTodos(no of Todos: {})", ids.size());
+
+        int deletedRows = 0;
+        try {
+            todoCollectionVersion.increment();
+            for (var chunk : chunks(ids)) {
+                deletedRows += repository.deleteTodosByIds(chunk);
+            }
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Deleting TODOs failed (%s)", ex.getMessage()), ex);
+            throw new TodoDeleteFailedException(ex.getMessage());
+        } finally {
+            todoCollectionVersion.increment();
+            todoCache.invalidateAll(ids);
+        }
+
+        LOGGER.debug("Deleted TODOs using deleteTodos(..), no of TODOs deleted: {}", deletedRows);
+
+        return deletedRows;
+    }
+
+    @Override
+    public int deleteCompletedTodos() throws TodoDeleteFailedException {
+
+        LOGGER.debug("Deleting completed TODOs synchronously using deleteCompletedTodos()");
+
+        int deletedRows = 0;
+        try {
+            todoCollectionVersion.increment();
+            deletedRows = repository.deleteCompletedTodos();
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Deleting completed TODOs failed (%s)", ex.getMessage()), ex);
+            throw new TodoDeleteFailedException(ex.getMessage());
+        } finally {
+            todoCollectionVersion.increment();
+            // The deleted ids are not known
+            todoCache.invalidateAll();
+        }
+
+        LOGGER.debug("Deleted completed TODOs, no of TODOs deleted: {}", deletedRows);
+
+        return deletedRows;
+    }
+
+    // Set-based update; the completion toggles are grouped by their target state and
+    // run as one UPDATE ... WHERE id IN (...) per group, text changes are sent as one
+    // JDBC batch. Nothing is read before the writes; the addressed TODOs are read once
+    // afterwards and all of them (not only the changed ones) are returned
+    @Override
+    @Transactional
     public List<Todo> updateTodos(List<Todo> todos)
             throws TodoIsEmptyException, TodoUpdateFailedException, TodoNotFoundException {
 
-        var todoListHashMap = new HashMap<UUID, Todo>();
-        var todoEntities = new ArrayList<app.demo.todoapi.entity.Todo>();
+        if (todos == null || todos.isEmpty()) {
+            return new ArrayList<Todo>();
+        }
+
+        LOGGER.debug("Updating TODOs synchronously using updateTodos (length: '{}')", todos.size());
+
+        var completeIds = new LinkedHashSet<UUID>();
+        var reopenIds = new LinkedHashSet<UUID>();
+        var completedDateTimeIds = new HashMap<Instant, Set<UUID>>();
+        var todoTexts = new HashMap<UUID, String>();
 
         for (var todo : todos) {
-            todoListHashMap.put(todo.getId(), todo);
-        }
-
-        var retrievedTodoEntities = repository.findAllById(todoListHashMap.keySet());
-        for (var retrievedTodoEntity : retrievedTodoEntities) {
-            var updatedTodo = todoListHashMap.get(retrievedTodoEntity.getId());
-            boolean valuesModified = false;
-            if (updatedTodo.getCompleted() && retrievedTodoEntity.getCompletedDateTime() == null) {
-                retrievedTodoEntity.setCompletedDateTime(new Date());
-                valuesModified = true;
-            } else if (!updatedTodo.getCompleted() && retrievedTodoEntity.getCompletedDateTime() != null) {
-                retrievedTodoEntity.setCompletedDateTime(null);
-                valuesModified = true;
-            } else if (retrievedTodoEntity.getCompletedDateTime() != updatedTodo.getCompletedDateTime()) {
-                retrievedTodoEntity.setCompletedDateTime(updatedTodo.getCompletedDateTime());
-                valuesModified = true;
-            }
-            if (updatedTodo.getTodoText() != null) {
-                if (updatedTodo.getTodoText().isBlank()) {
-                    throw new TodoIsEmptyException(updatedTodo.getId(), null);
-                }
-                if (!retrievedTodoEntity.getTodoText().equals(updatedTodo.getTodoText())) {
-                    retrievedTodoEntity.setTodoText(updatedTodo.getTodoText());
-                    valuesModified = true;
+            if (todo == null || todo.getId() == null) {
+                throw new TodoIsEmptyException(null, null);
+            }
+            if (todo.getCompleted()) {
+                if (todo.getCompletedDateTime() == null) {
+                    completeIds.add(todo.getId());
+                } else {
+                    // The client sent an explicit completion time; it wins over the stored one
+                    completedDateTimeIds.computeIfAbsent(todo.getCompletedDateTime(), k -> new LinkedHashSet<UUID>())
+                            .add(todo.getId());
                 }
+            } else {
+                reopenIds.add(todo.getId());
             }
-            if (valuesModified) {
-                todoEntities.add(retrievedTodoEntity);
+            if (todo.getTodoText() != null) {
+                if (todo.getTodoText().isBlank()) {
+                    throw new TodoIsEmptyException(todo.getId(), null);
+                }
+                todoTexts.put(todo.getId(), todo.getTodoText());
             }
         }
 
-        var resultingTodoEntities = repository.saveAll(todoEntities);
+        var ids = new LinkedHashSet<UUID>();
+        for (var todo : todos) {
+            ids.add(todo.getId());
+        }
 
         var retVal = new ArrayList<Todo>();
-        for (var resultingTodoEntity : resultingTodoEntities) {
-            retVal.add(new Todo(resultingTodoEntity.getId(), resultingTodoEntity.getTodoText(),
-                    resultingTodoEntity.getCreatedDateTime(), resultingTodoEntity.getCompletedDateTime(),
-                    resultingTodoEntity.getCompletedDateTime() != null));
+        try {
+            // The statements return the rows they changed (UPDATE ... RETURNING), so
+            // the result needs no second read; a row changed by several statements is
+            // kept as the last one left it
+            var updatedTodoEntities = new LinkedHashMap<UUID, app.demo.todoapi.entity.Todo>();
+
+            todoCollectionVersion.increment();
+            var now = Utils.now();
+            for (var chunk : chunks(completeIds)) {
+                putAll(updatedTodoEntities, repository.completeTodos(chunk, now));
+            }
+            for (var chunk : chunks(reopenIds)) {
+                putAll(updatedTodoEntities, repository.reopenTodos(chunk));
+            }
+            for (var e : completedDateTimeIds.entrySet()) {
+                for (var chunk : chunks(e.getValue())) {
+                    putAll(updatedTodoEntities, repository.setCompletedDateTime(chunk, e.getKey()));
+                }
+            }
+            for (var chunk : chunks(todoTexts.keySet())) {
+                var todoTextsChunk = new HashMap<UUID, String>();
+                for (var id : chunk) {
+                    todoTextsChunk.put(id, todoTexts.get(id));
+                }
+                putAll(updatedTodoEntities, repository.updateTodoTexts(todoTextsChunk));
+            }
+
+            // Only the changed TODOs, in the order of the request
+            for (var id : ids) {
+                var updatedTodoEntity = updatedTodoEntities.get(id);
+                if (updatedTodoEntity != null) {
+                    retVal.add(new Todo(updatedTodoEntity.getId(), updatedTodoEntity.getTodoText(),
+                            updatedTodoEntity.getCreatedDateTime(), updatedTodoEntity.getCompletedDateTime(),
+                            updatedTodoEntity.getCompletedDateTime() != null));
+                }
+            }
+
+            LOGGER.debug("Updated TODOs using updateTodos ({} requested, {} changed)",
+                    ids.size(), retVal.size());
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Todos update failed (%s)", ex.getMessage()), ex);
+            throw new TodoUpdateFailedException(ex.getMessage());
+        } finally {
+            todoCollectionVersion.increment();
+            todoCache.invalidateAll(ids);
+        }
+
+        return retVal;
+    }
+
+    private static void putAll(LinkedHashMap<UUID, app.demo.todoapi.entity.Todo> updatedTodoEntities,
+            List<app.demo.todoapi.entity.Todo> todoEntities) {
+        for (var todoEntity : todoEntities) {
+            updatedTodoEntities.put(todoEntity.getId(), todoEntity);
         }
+    }
 
+    // Keeps IN lists well below the bind parameter limits of the JDBC drivers
+    static List<List<UUID>> chunks(Collection<UUID> ids) {
+        var retVal = new ArrayList<List<UUID>>();
+        var chunk = new ArrayList<UUID>(Math.min(ids.size(), IN_LIST_CHUNK_SIZE));
+        for (var id : ids) {
+            chunk.add(id);
+            if (chunk.size() == IN_LIST_CHUNK_SIZE) {
+                retVal.add(chunk);
+                chunk = new ArrayList<UUID>(IN_LIST_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            retVal.add(chunk);
+        }
         return retVal;
     }
 
@@ -0,0 +1,54 @@
+package app.demo.todoapi.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+//Opaque cursor handed out to clients paging through the Todo list; it encodes
+//the (createdDateTime, id) keyset position of the last Todo on the previous page
+public class ContinuationToken {
+
+    private static final String SEPARATOR = ",";
+
+    private final Instant createdDateTime;
+    private final UUID id;
+
+    public ContinuationToken(Instant createdDateTime, UUID id) {
+        this.createdDateTime = createdDateTime;
+        this.id = id;
+    }
+
+    public Instant getCreatedDateTime() {
+        return createdDateTime;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String encode() {
+        String value = Long.toString(createdDateTime.toEpochMilli()) + SEPARATOR + id.toString();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ContinuationToken decode(String token) throws IllegalArgumentException {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Continuation token cannot be empty");
+        }
+
+        String value = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+        int separatorIndex = value.indexOf(SEPARATOR);
+        if (separatorIndex <= 0) {
+            throw new IllegalArgumentException(String.format("Malformed continuation token '%s'", token));
+        }
+
+        try {
+            long createdDateTime = Long.parseLong(value.substring(0, separatorIndex));
+            UUID id = UUID.fromString(value.substring(separatorIndex + 1));
+            return new ContinuationToken(Instant.ofEpochMilli(createdDateTime), id);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(String.format("Malformed continuation token '%s'", token), ex);
+        }
+    }
+}
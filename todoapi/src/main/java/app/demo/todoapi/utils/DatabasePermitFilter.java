@@ -0,0 +1,94 @@
+package app.demo.todoapi.utils;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//With a virtual thread per request there is no Tomcat thread limit any more, every
+//accepted connection runs at once and would queue up in Hikari, time out there
+//(connectionTimeout) and keep the pool's lock contended. API requests therefore take
+//a permit first; there are as many permits as connections in the pool. A request
+//that does not get one within the timeout is answered with 503 and Retry-After, the
+//same as an overloaded platform thread pool would reject it, but without having
+//touched the database. Requests the predicate says will not use the database (e.g.
+//cache hits and 304s) run without a permit
+public class DatabasePermitFilter extends OncePerRequestFilter {
+
+    public static final AppLogger LOGGER = new AppLogger(DatabasePermitFilter.class);
+
+    private final int permitCount;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final Counter rejected;
+    private final Predicate<HttpServletRequest> usesDatabase;
+
+    public DatabasePermitFilter(int permitCount, long timeoutMillis, MeterRegistry meterRegistry,
+            Predicate<HttpServletRequest> usesDatabase) {
+        this.permitCount = permitCount;
+        this.timeoutMillis = timeoutMillis;
+        this.usesDatabase = usesDatabase;
+        this.permits = new Semaphore(permitCount, true);
+
+        Gauge.builder("todoapi.db.permits.available", permits, Semaphore::availablePermits)
+                .description("Database permits not taken by a request")
+                .register(meterRegistry);
+        Gauge.builder("todoapi.db.permits.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests waiting for a database permit")
+                .register(meterRegistry);
+        rejected = Counter.builder("todoapi.db.permits.rejected")
+                .description("Requests rejected because no database permit was free in time")
+                .register(meterRegistry);
+    }
+
+    public int getPermitCount() {
+        return permitCount;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!usesDatabase.test(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+
+        if (!acquired) {
+            rejected.increment();
+            LOGGER.debug("No database permit within {} ms for {} '{}'", timeoutMillis,
+                    request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+
+        // Streamed exports continue on an MVC task thread after this returns, so their
+        // permit is released early; they are rare and hold a single connection
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
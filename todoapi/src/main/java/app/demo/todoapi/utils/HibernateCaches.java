@@ -0,0 +1,61 @@
+package app.demo.todoapi.utils;
+
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.spi.RegionFactory;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+//Regions of Hibernate's second-level cache (JCache on Caffeine). The caches are
+//created here, bounded and expiring, rather than on first use by Hibernate, which
+//would create them unbounded
+public class HibernateCaches {
+
+    public static final AppLogger LOGGER = new AppLogger(HibernateCaches.class);
+
+    // The Todo entity (entity.Todo)
+    public static final String TODO_REGION = "todo";
+
+    // Results of the sorted list queries of TodoRepository
+    public static final String TODO_LIST_QUERY_REGION = "todo-list";
+
+    private HibernateCaches() {
+    }
+
+    // A new manager per persistence unit; Hibernate closes it with the SessionFactory
+    public static CacheManager createCacheManager(long maxSize, long queryMaxSize, long ttlSeconds) {
+        LOGGER.debug("Creating the second-level cache regions (max size {}, query max size {}, TTL {} s)",
+                maxSize, queryMaxSize, ttlSeconds);
+
+        var provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        var cacheManager = provider.getCacheManager(URI.create("todoapi-hibernate-" + UUID.randomUUID()),
+                provider.getDefaultClassLoader());
+
+        cacheManager.createCache(TODO_REGION, expiringConfiguration(maxSize, ttlSeconds));
+        cacheManager.createCache(TODO_LIST_QUERY_REGION, expiringConfiguration(queryMaxSize, ttlSeconds));
+        // Hibernate creates the default query region whenever the query cache is on
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                expiringConfiguration(queryMaxSize, ttlSeconds));
+        // Last write per table, checked before a cached query result is used; an
+        // evicted entry would let stale results through, so it is neither bounded
+        // nor expiring (one entry per table)
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<Object, Object>());
+
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> expiringConfiguration(long maxSize, long ttlSeconds) {
+        var configuration = new CaffeineConfiguration<Object, Object>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        return configuration;
+    }
+}
@@ -0,0 +1,8 @@
+package app.demo.todoapi.utils;
+
+import java.util.UUID;
+
+//Generates the primary keys of new Todos; selected by app.demo.todoapi.id-generator
+public interface IdGenerator {
+    UUID generate();
+}
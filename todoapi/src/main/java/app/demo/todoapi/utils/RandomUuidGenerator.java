@@ -0,0 +1,12 @@
+package app.demo.todoapi.utils;
+
+import java.util.UUID;
+
+//Random (version 4) UUIDs; scatter inserts across the whole primary key index
+public class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public UUID generate() {
+        return UUID.randomUUID();
+    }
+}
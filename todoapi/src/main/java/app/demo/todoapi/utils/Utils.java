@@ -1,9 +1,10 @@
 package app.demo.todoapi.utils;
 
 import java.io.InputStream;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -15,7 +16,9 @@ import app.demo.todoapi.TodoApplication;
 public class Utils {
   public static final AppLogger LOGGER = new AppLogger(Utils.class);
 
-  private static DateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm a z");
+  // Immutable, so it can be shared by concurrent toString() calls without locking
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm a z")
+      .withZone(ZoneId.systemDefault());
   private static String GIT_COMMIT_ID = "";
 
   public static String toJsonValueContent(String value) {
@@ -24,12 +27,19 @@ public class Utils {
     return value.replace("\'", "\\'").replace("\"", "\\\"");
   }
 
-  public static String toJsonValueContent(Date value) {
+  public static String toJsonValueContent(Instant value) {
     if (value == null)
       return "null";
     return DATE_FORMAT.format(value);
   }
 
+  // Timestamps of the todos are kept at millisecond precision: the continuation
+  // token and the epoch-millis JSON form carry no more, and a value that does not
+  // round trip would break keyset pagination
+  public static Instant now() {
+    return Instant.now().truncatedTo(ChronoUnit.MILLIS);
+  }
+
   public static String shortenString(String value) {
 
     if (value == null) {
@@ -0,0 +1,49 @@
+package app.demo.todoapi.utils;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+//Time-ordered (version 7, RFC 9562) UUIDs: 48 bits of Unix epoch milliseconds,
+//followed by a 12 bit counter (rand_a) and 62 random bits (rand_b). New keys land
+//at the right-hand edge of the primary key B-tree instead of random pages.
+//
+//Ids are monotonic within one instance: the counter starts at a random value in
+//the lower half of its range every millisecond and is incremented for each further
+//id in the same millisecond; on overflow (or if the clock goes backwards) the
+//timestamp is advanced past the last one used.
+public class UuidV7Generator implements IdGenerator {
+
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7L << COUNTER_BITS;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+
+    private long lastTimestamp = -1;
+    private int counter = 0;
+
+    @Override
+    public UUID generate() {
+        long timestamp;
+        int sequence;
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now > lastTimestamp) {
+                lastTimestamp = now;
+                counter = ThreadLocalRandom.current().nextInt((COUNTER_MAX + 1) / 2);
+            } else if (counter < COUNTER_MAX) {
+                counter++;
+            } else {
+                lastTimestamp++;
+                counter = 0;
+            }
+            timestamp = lastTimestamp;
+            sequence = counter;
+        }
+
+        long mostSigBits = (timestamp << 16) | VERSION | sequence;
+        long leastSigBits = (ThreadLocalRandom.current().nextLong() & RAND_B_MASK) | VARIANT;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -56,4 +56,15 @@ public class TodoRepositoryTest {
         assertTrue(retrievedTodos.get(0).getId().equals(existingTodoId));
     }
 
+    @Test
+    void whenValidTodoId_thenTodoShouldBeProjected() {
+
+        var retrievedTodo = todoRepository.findTodoById(existingTodoId);
+
+        assertTrue(retrievedTodo.isPresent());
+        assertEquals(existingTodoId, retrievedTodo.get().getId());
+        assertEquals("Help build S.H.I.E.L.D.", retrievedTodo.get().getTodoText());
+        assertEquals(retrievedTodo.get().getCompletedDateTime() != null, retrievedTodo.get().getCompleted());
+    }
+
 }
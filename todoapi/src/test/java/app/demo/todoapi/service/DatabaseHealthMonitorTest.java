@@ -0,0 +1,38 @@
+package app.demo.todoapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import app.demo.todoapi.controller.DatabaseHealthContributor;
+import app.demo.todoapi.utils.AppLogger;
+
+@SpringBootTest
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class DatabaseHealthMonitorTest {
+
+    public static final AppLogger LOGGER = new AppLogger(DatabaseHealthMonitorTest.class);
+
+    @Autowired
+    private DatabaseHealthMonitor databaseHealthMonitor;
+
+    @Autowired
+    private DatabaseHealthContributor databaseHealthContributor;
+
+    @Test
+    void whenDatabaseIsReachable_thenHealthShouldBeUp() {
+
+        var result = databaseHealthMonitor.check();
+
+        assertTrue(result.isUp());
+        assertFalse(databaseHealthMonitor.isStale(result));
+        assertEquals(Status.UP, databaseHealthContributor.health().getStatus());
+    }
+}
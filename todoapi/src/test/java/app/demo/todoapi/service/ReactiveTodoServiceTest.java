@@ -0,0 +1,160 @@
+package app.demo.todoapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import app.demo.todoapi.DatabaseLoader;
+import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.exception.InvalidPageRequestException;
+import app.demo.todoapi.exception.NewTodoIsEmptyException;
+import app.demo.todoapi.exception.TodoNotFoundException;
+import app.demo.todoapi.repository.TodoRepository;
+
+//The r2dbc profile reads and writes the same in-memory H2 database as the JPA
+//repository (see application-local.yml), so the demo data is loaded through JPA
+@SpringBootTest
+@ActiveProfiles({"local", "r2dbc"})
+public class ReactiveTodoServiceTest {
+
+    @Autowired
+    private ReactiveTodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoCache todoCache;
+
+    private UUID existingTodoId = null;
+
+    @BeforeEach
+    void setUp() {
+        if (existingTodoId == null) {
+            DatabaseLoader.initRepoWithDemoData(todoRepository);
+            existingTodoId = UUID.fromString("00000000-0000-0000-0000-000000000002");
+        }
+    }
+
+    @Test
+    void always_retrieveTodosPageByPage() {
+        var allTodos = todoService.getTodos().collectList().block();
+        assertTrue(allTodos.size() > 0);
+
+        var pagedTodos = new ArrayList<Todo>();
+        String continuationToken = null;
+        do {
+            var page = todoService.getTodos(5, continuationToken).block();
+            assertTrue(page.getTodoList().size() <= 5);
+            pagedTodos.addAll(page.getTodoList());
+            continuationToken = page.getContinuationToken();
+        } while (continuationToken != null);
+
+        assertEquals(allTodos.size(), pagedTodos.size());
+        assertTrue(pagedTodos.containsAll(allTodos));
+    }
+
+    @Test
+    void whenInvalidContinuationToken_thenPageShouldNotBeRetrieved() {
+        assertThrows(InvalidPageRequestException.class, () -> todoService.getTodos(5, "not-a-valid-token").block());
+    }
+
+    @Test
+    void whenValidTodoId_thenTodoShouldBeFound() {
+        assertEquals(existingTodoId, todoService.getTodo(existingTodoId).block().getId());
+    }
+
+    @Test
+    void whenInvalidTodoId_thenTodoShouldNotBeFound() {
+        UUID todoId = UUID.fromString("11111111-0000-0000-0000-000000000002");
+
+        assertThrows(TodoNotFoundException.class, () -> todoService.getTodo(todoId).block());
+    }
+
+    @Test
+    void whenInvalidTodo_thenTodoShouldNotBeCreated() {
+        assertThrows(NewTodoIsEmptyException.class, () -> todoService.createTodo(" ").block());
+    }
+
+    @Test
+    void whenValidTodo_thenTodoShouldBeCreatedUpdatedAndDeleted() {
+        var createdTodo = todoService.createTodo("Test it all reactively").block();
+        assertNotNull(createdTodo.getId());
+        assertEquals("Test it all reactively", todoRepository.findById(createdTodo.getId()).get().getTodoText());
+
+        createdTodo.setTodoText("Test it all reactively, again");
+        var updatedTodo = todoService.updateTodo(createdTodo).block();
+        assertEquals("Test it all reactively, again", updatedTodo.getTodoText());
+
+        todoService.deleteTodo(createdTodo.getId()).block();
+        assertTrue(todoRepository.findById(createdTodo.getId()).isEmpty());
+        assertThrows(TodoNotFoundException.class, () -> todoService.deleteTodo(createdTodo.getId()).block());
+    }
+
+    @Test
+    void whenValidTodos_thenTodosShouldBeCompletedAndDeletedInBulk() {
+        var createdTodos = todoService.createTodos(List.of("Batch it all 1", "Batch it all 2", "Batch it all 3"))
+                .block();
+        assertEquals(3, createdTodos.size());
+
+        var ids = new ArrayList<UUID>();
+        for (var createdTodo : createdTodos) {
+            createdTodo.setCompleted(true);
+            ids.add(createdTodo.getId());
+        }
+        var updatedTodos = todoService.updateTodos(createdTodos).block();
+        assertEquals(3, updatedTodos.size());
+        for (var updatedTodo : updatedTodos) {
+            assertTrue(updatedTodo.getCompleted());
+            assertNotNull(updatedTodo.getCompletedDateTime());
+        }
+
+        assertEquals(3, todoService.deleteTodos(ids).block());
+    }
+
+    @Test
+    void whenTodoIsUpdatedWhileBeingRead_thenReadShouldNotBeCached() {
+        var createdTodo = todoService.createTodo("Race it").block();
+        todoCache.invalidate(createdTodo.getId());
+
+        // getTodo(..): stamp taken, row read before the update commits...
+        var stamp = todoCache.getStamp();
+        var staleTodo = todoService.getTodo(createdTodo.getId()).block();
+        todoCache.invalidate(createdTodo.getId());
+
+        createdTodo.setTodoText("Race it, again");
+        todoService.updateTodo(createdTodo).block();
+
+        // ...and cached only after the update's invalidation
+        todoCache.putIfNotInvalidated(staleTodo, stamp);
+
+        assertNull(todoCache.getIfPresent(createdTodo.getId()));
+        assertEquals("Race it, again", todoService.getTodo(createdTodo.getId()).block().getTodoText());
+
+        todoService.deleteTodo(createdTodo.getId()).block();
+    }
+
+    @Test
+    void whenTodoIsNotUpdatedWhileBeingRead_thenReadShouldBeCached() {
+        var createdTodo = todoService.createTodo("Cache it").block();
+        todoCache.invalidate(createdTodo.getId());
+
+        todoService.getTodo(createdTodo.getId()).block();
+
+        assertEquals("Cache it", todoCache.getIfPresent(createdTodo.getId()).getTodoText());
+
+        todoService.deleteTodo(createdTodo.getId()).block();
+    }
+}
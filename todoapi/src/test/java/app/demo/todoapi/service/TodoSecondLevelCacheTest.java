@@ -0,0 +1,154 @@
+package app.demo.todoapi.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import app.demo.todoapi.entity.Todo;
+import app.demo.todoapi.repository.TodoRepository;
+
+//updateTodos(..) writes through set-based JDBC updates (completion and texts) that
+//do not go through the entity; they have to leave no stale Todo entry
+//and no stale list query result in Hibernate's second-level cache (the query cache is
+//off by default)
+@SpringBootTest(properties = "app.demo.todoapi.hibernate-query-cache-enabled=true")
+@AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
+public class TodoSecondLevelCacheTest {
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SessionFactory sessionFactory;
+
+    private List<UUID> ids;
+
+    @BeforeEach
+    void setUp() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        ids = new ArrayList<UUID>();
+        for (var createdTodo : todoService.createTodos(List.of("Cache it 1", "Cache it 2"))) {
+            ids.add(createdTodo.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        todoService.deleteTodos(ids);
+    }
+
+    @Test
+    void always_cacheTodoEntityAndListQuery() {
+        sessionFactory.getCache().evictAllRegions();
+        var statistics = sessionFactory.getStatistics();
+
+        todoRepository.findById(ids.get(0));
+        assertTrue(sessionFactory.getCache().containsEntity(Todo.class, ids.get(0)));
+        long entityHits = statistics.getSecondLevelCacheHitCount();
+        todoRepository.findById(ids.get(0));
+        assertEquals(entityHits + 1, statistics.getSecondLevelCacheHitCount());
+
+        todoRepository.findAllTodos();
+        long queryHits = statistics.getQueryCacheHitCount();
+        todoRepository.findAllTodos();
+        assertEquals(queryHits + 1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void whenTodosCompletedAndReopened_thenCachedTodosShouldBeInvalidated() {
+        primeCaches();
+
+        todoService.updateTodos(todosWithCompleted(true, null));
+
+        assertFalse(sessionFactory.getCache().containsEntity(Todo.class, ids.get(0)));
+        for (var id : ids) {
+            assertNotNull(todoRepository.findById(id).get().getCompletedDateTime());
+            assertNotNull(findInList(id).getCompletedDateTime());
+        }
+
+        primeCaches();
+
+        todoService.updateTodos(todosWithCompleted(false, null));
+
+        for (var id : ids) {
+            assertNull(todoRepository.findById(id).get().getCompletedDateTime());
+            assertNull(findInList(id).getCompletedDateTime());
+        }
+    }
+
+    @Test
+    void whenTodoTextsUpdated_thenCachedTodosShouldBeInvalidated() {
+        primeCaches();
+
+        todoService.updateTodos(todosWithCompleted(false, "Cache it again"));
+
+        assertFalse(sessionFactory.getCache().containsEntity(Todo.class, ids.get(0)));
+        for (var id : ids) {
+            assertEquals("Cache it again", todoRepository.findById(id).get().getTodoText());
+            assertEquals("Cache it again", findInList(id).getTodoText());
+        }
+    }
+
+    // updateTodo(..) is a plain JDBC statement, Hibernate does not invalidate anything
+    @Test
+    void whenTodoUpdated_thenCachedTodoShouldBeInvalidated() {
+        primeCaches();
+
+        todoService.updateTodo(new app.demo.todoapi.dto.Todo(ids.get(0), "Cache it once more", null, null, false));
+
+        assertFalse(sessionFactory.getCache().containsEntity(Todo.class, ids.get(0)));
+        assertEquals("Cache it once more", todoRepository.findById(ids.get(0)).get().getTodoText());
+        assertEquals("Cache it once more", findInList(ids.get(0)).getTodoText());
+    }
+
+    // Loads the Todos into the entity region and the sorted list into the query cache
+    private void primeCaches() {
+        for (var id : ids) {
+            todoRepository.findById(id);
+            assertTrue(sessionFactory.getCache().containsEntity(Todo.class, id));
+        }
+        todoRepository.findAllTodos();
+        todoRepository.findFirstPage(PageRequest.of(0, 50));
+    }
+
+    private List<app.demo.todoapi.dto.Todo> todosWithCompleted(boolean completed, String todoText) {
+        var todos = new ArrayList<app.demo.todoapi.dto.Todo>();
+        for (var id : ids) {
+            todos.add(new app.demo.todoapi.dto.Todo(id, todoText, null, null, completed));
+        }
+        return todos;
+    }
+
+    private app.demo.todoapi.dto.Todo findInList(UUID id) {
+        for (var todo : todoRepository.findAllTodos()) {
+            if (todo.getId().equals(id)) {
+                return todo;
+            }
+        }
+        throw new AssertionError(String.format("Todo '%s' is missing from the list", id));
+    }
+}
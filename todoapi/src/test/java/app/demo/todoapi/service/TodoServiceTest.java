@@ -1,8 +1,11 @@
 package app.demo.todoapi.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,13 +14,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 
 import app.demo.todoapi.DatabaseLoader;
 import app.demo.todoapi.dto.Todo;
+import app.demo.todoapi.exception.InvalidPageRequestException;
+import app.demo.todoapi.exception.TodoNotFoundException;
 import app.demo.todoapi.repository.TodoRepository;
 import app.demo.todoapi.utils.AppLogger;
+import app.demo.todoapi.utils.TodoJson;
 
-@SpringBootTest
+@SpringBootTest(properties = "app.demo.todoapi.etag-enabled=true")
 @AutoConfigureTestDatabase(connection = EmbeddedDatabaseConnection.H2)
 public class TodoServiceTest {
     
@@ -28,6 +35,9 @@ public class TodoServiceTest {
 
 	@Autowired 
     private TodoRepository todoRepository;
+
+	@Autowired 
+    private TodoCollectionVersion todoCollectionVersion;
     
     private UUID existingTodoId = null;
 
@@ -51,12 +61,58 @@ public class TodoServiceTest {
         });
     }
 
+    @Test
+    void always_retrieveTodosPageByPage() {
+
+        assertDoesNotThrow(() -> {
+            var allTodos = todoService.getTodos();
+
+            var pagedTodos = new ArrayList<Todo>();
+            String continuationToken = null;
+            do {
+                var page = todoService.getTodos(5, continuationToken);
+                if (page.getTodoList().size() > 5) {
+                    throw new Exception("Page size limit exceeded.");
+                }
+                pagedTodos.addAll(page.getTodoList());
+                continuationToken = page.getContinuationToken();
+            } while (continuationToken != null);
+
+            if (pagedTodos.size() != allTodos.size() || !pagedTodos.containsAll(allTodos)) {
+                throw new Exception("Paged Todo List does not match the full Todo List.");
+            }
+        });
+    }
+
+    @Test
+    void always_streamTodos() {
+
+        assertDoesNotThrow(() -> {
+            var allTodos = todoService.getTodos();
+
+            var streamedTodos = new ArrayList<Todo>();
+            todoService.streamTodos(todo -> streamedTodos.add(todo));
+
+            if (streamedTodos.size() != allTodos.size() || !streamedTodos.containsAll(allTodos)) {
+                throw new Exception("Streamed Todo List does not match the full Todo List.");
+            }
+        });
+    }
+
+    @Test
+    void whenInvalidContinuationToken_thenPageShouldNotBeRetrieved() {
+
+        assertThrows(InvalidPageRequestException.class, () -> {
+            todoService.getTodos(5, "not-a-valid-token");
+        });
+    }
+
     @Test
     void whenValidTodoId_thenTodoShouldBeFound() {
 
         assertDoesNotThrow(() -> {
             Todo retrievedTodo = todoService.getTodo(existingTodoId);
-            if (retrievedTodo.getId() != existingTodoId) {
+            if (!retrievedTodo.getId().equals(existingTodoId)) {
                 throw new Exception("Invalid Todo retrieved.");
             }
         });
@@ -84,6 +140,40 @@ public class TodoServiceTest {
         });
     }
 
+    @Test
+    void whenValidTodos_thenTodosShouldBeCreatedInBatch() {
+
+        assertDoesNotThrow(() -> {
+            var todoTexts = new ArrayList<String>();
+            for (int i = 0; i < 120; i++) {
+                todoTexts.add("Batch it all " + i);
+            }
+
+            List<Todo> createdTodos = todoService.createTodos(todoTexts);
+            if (createdTodos.size() != todoTexts.size()) {
+                throw new Exception("Invalid number of Todos created.");
+            }
+            for (var createdTodo : createdTodos) {
+                Todo retrievedTodo = todoService.getTodo(createdTodo.getId());
+                if (!retrievedTodo.getTodoText().startsWith("Batch it all ")) {
+                    throw new Exception("Invalid Todo created.");
+                }
+                todoService.deleteTodo(createdTodo.getId());
+            }
+        });
+    }
+
+    @Test
+    void whenOneInvalidTodo_thenNoTodosShouldBeCreatedInBatch() {
+
+        long todoCount = todoRepository.count();
+
+        assertThrows(Exception.class, () -> {
+            todoService.createTodos(List.of("Batch it all", " "));
+        });
+        assertEquals(todoCount, todoRepository.count());
+    }
+
     @Test
     void whenInvalidTodo_thenTodoShouldNotBeCreated() {
 
@@ -107,6 +197,75 @@ public class TodoServiceTest {
         });
     }
 
+    @Test
+    void whenValidTodoIds_thenTodosShouldBeDeletedInBulk() {
+
+        assertDoesNotThrow(() -> {
+            List<Todo> createdTodos = todoService.createTodos(List.of("Delete it all 1", "Delete it all 2"));
+
+            var ids = new ArrayList<UUID>();
+            for (var createdTodo : createdTodos) {
+                ids.add(createdTodo.getId());
+            }
+            ids.add(UUID.fromString("11111111-0000-0000-0000-000000000004"));
+
+            if (todoService.deleteTodos(ids) != 2) {
+                throw new Exception("Invalid number of Todos deleted.");
+            }
+        });
+    }
+
+    @Test
+    void whenCompletedTodosAreDeleted_thenOpenTodosShouldSurvive() {
+
+        assertDoesNotThrow(() -> {
+            List<Todo> createdTodos = todoService.createTodos(
+                    List.of("Complete and delete it 1", "Complete and delete it 2", "Keep it open"));
+
+            var completedTodos = new ArrayList<Todo>();
+            for (var createdTodo : createdTodos.subList(0, 2)) {
+                var completedTodo = new Todo();
+                completedTodo.setId(createdTodo.getId());
+                completedTodo.setCompleted(true);
+                completedTodos.add(completedTodo);
+            }
+            todoService.updateTodos(completedTodos);
+
+            int completedCount = 0;
+            int openCount = 0;
+            for (var todo : todoService.getTodos()) {
+                if (todo.getCompletedDateTime() != null) {
+                    completedCount++;
+                } else {
+                    openCount++;
+                }
+            }
+
+            if (todoService.deleteCompletedTodos() != completedCount) {
+                throw new Exception("Invalid number of Todos deleted.");
+            }
+
+            var remainingTodos = todoService.getTodos();
+            if (remainingTodos.size() != openCount) {
+                throw new Exception("Invalid number of Todos left.");
+            }
+            for (var remainingTodo : remainingTodos) {
+                if (remainingTodo.getCompletedDateTime() != null) {
+                    throw new Exception("Completed Todo has not been deleted.");
+                }
+            }
+            for (var completedTodo : completedTodos) {
+                assertThrows(TodoNotFoundException.class, () -> todoService.getTodo(completedTodo.getId()));
+            }
+            if (todoService.getTodo(createdTodos.get(2).getId()) == null
+                    || todoService.getTodo(existingTodoId) == null) {
+                throw new Exception("Open Todo has been deleted.");
+            }
+
+            todoService.deleteTodo(createdTodos.get(2).getId());
+        });
+    }
+
     @Test
     void whenInvalidTodoId_thenTodoShouldNotBeDeleted() {
 
@@ -129,7 +288,7 @@ public class TodoServiceTest {
             createdTodo.setTodoText("Update it all");
             
             Todo updatedTodo = todoService.updateTodo(createdTodo);
-            if (updatedTodo.getId() != createdTodo.getId() || updatedTodo.getTodoText().compareTo("Update it all") != 0) {
+            if (!updatedTodo.getId().equals(createdTodo.getId()) || updatedTodo.getTodoText().compareTo("Update it all") != 0) {
                 throw new Exception("Update failed.");
             }
 
@@ -138,6 +297,162 @@ public class TodoServiceTest {
         });
     }
 
+    @Test
+    void whenTodosAreCreated_thenIdsShouldBeTimeOrdered() {
+
+        assertDoesNotThrow(() -> {
+            List<Todo> createdTodos = todoService.createTodos(List.of("Order it all 1", "Order it all 2"));
+            Todo createdTodo = todoService.createTodo("Order it all 3");
+
+            var ids = List.of(createdTodos.get(0).getId(), createdTodos.get(1).getId(), createdTodo.getId());
+            for (int i = 0; i < ids.size(); i++) {
+                if (ids.get(i).version() != 7) {
+                    throw new Exception(String.format("Todo id '%s' is not a UUIDv7.", ids.get(i)));
+                }
+                if (i > 0 && ids.get(i - 1).compareTo(ids.get(i)) >= 0) {
+                    throw new Exception("Todo ids are not increasing.");
+                }
+            }
+
+            todoService.deleteTodos(ids);
+        });
+    }
+
+    @Test
+    void whenMissingTodo_thenTodoShouldNotBeUpdated() {
+
+        var missingTodo = new Todo(UUID.fromString("11111111-0000-0000-0000-000000000003"), "Update nothing", null,
+                null, false);
+
+        assertThrows(TodoNotFoundException.class, () -> {
+            todoService.updateTodo(missingTodo);
+        });
+    }
+
+    @Test
+    void whenCachedTodoIsUpdated_thenUpdatedTodoShouldBeFound() {
+
+        assertDoesNotThrow(() -> {
+            Todo createdTodo = todoService.createTodo("Cache it all");
+
+            // Populates the cache
+            todoService.getTodo(createdTodo.getId());
+
+            createdTodo.setTodoText("Invalidate it all");
+            todoService.updateTodo(createdTodo);
+
+            Todo retrievedTodo = todoService.getTodo(createdTodo.getId());
+            if (retrievedTodo.getTodoText().compareTo("Invalidate it all") != 0) {
+                throw new Exception("Stale Todo retrieved from the cache.");
+            }
+
+            todoService.deleteTodo(createdTodo.getId());
+        });
+
+    }
+
+    @Test
+    void whenTodosAreToggled_thenTodosShouldBeUpdatedInBulk() {
+
+        assertDoesNotThrow(() -> {
+            List<Todo> createdTodos = todoService.createTodos(List.of("Toggle it all 1", "Toggle it all 2"));
+
+            var toggledTodos = new ArrayList<Todo>();
+            for (var createdTodo : createdTodos) {
+                var toggledTodo = new Todo();
+                toggledTodo.setId(createdTodo.getId());
+                toggledTodo.setCompleted(true);
+                toggledTodos.add(toggledTodo);
+            }
+            toggledTodos.get(1).setTodoText("Toggle and rename it all");
+
+            List<Todo> updatedTodos = todoService.updateTodos(toggledTodos);
+            if (updatedTodos.size() != 2) {
+                throw new Exception("Invalid number of Todos returned.");
+            }
+            for (var updatedTodo : updatedTodos) {
+                if (!updatedTodo.getCompleted() || updatedTodo.getCompletedDateTime() == null) {
+                    throw new Exception("Todo has not been completed.");
+                }
+                if (todoService.getTodo(updatedTodo.getId()).getCompletedDateTime() == null) {
+                    throw new Exception("Stale Todo retrieved.");
+                }
+            }
+            if (todoService.getTodo(createdTodos.get(1).getId()).getTodoText()
+                    .compareTo("Toggle and rename it all") != 0) {
+                throw new Exception("Todo text has not been updated.");
+            }
+
+            for (var toggledTodo : toggledTodos) {
+                toggledTodo.setCompleted(false);
+                toggledTodo.setTodoText(null);
+            }
+            for (var updatedTodo : todoService.updateTodos(toggledTodos)) {
+                if (updatedTodo.getCompleted() || updatedTodo.getCompletedDateTime() != null) {
+                    throw new Exception("Todo has not been reopened.");
+                }
+            }
+
+            for (var createdTodo : createdTodos) {
+                todoService.deleteTodo(createdTodo.getId());
+            }
+        });
+    }
+
+    @Test
+    void whenRepresentationsDiffer_thenETagsShouldDiffer() {
+
+        assertDoesNotThrow(() -> {
+            String jsonETag = todoCollectionVersion.getListETag(MediaType.APPLICATION_JSON);
+            String smileETag = todoCollectionVersion.getListETag(TodoJson.APPLICATION_SMILE);
+            if (todoCollectionVersion.matches(jsonETag, smileETag)
+                    || todoCollectionVersion.matches(smileETag, jsonETag)) {
+                throw new Exception("The JSON and the Smile representation share an ETag.");
+            }
+            if (!todoCollectionVersion.matches(smileETag, todoCollectionVersion.getListETag(TodoJson.APPLICATION_SMILE))) {
+                throw new Exception("Unchanged Smile ETag does not match.");
+            }
+        });
+    }
+
+    @Test
+    void whenTodoIsUpdated_thenETagsShouldChange() {
+
+        assertDoesNotThrow(() -> {
+            Todo createdTodo = todoService.createTodo("Tag it all");
+
+            String listETag = todoCollectionVersion.getListETag(MediaType.APPLICATION_JSON);
+            String todoETag = todoCollectionVersion.getTodoETag(createdTodo.getId(), MediaType.APPLICATION_JSON);
+            if (!todoCollectionVersion.matches(listETag, listETag)
+                    || !todoCollectionVersion.matches("W/" + todoETag, todoETag)) {
+                throw new Exception("Unchanged ETags do not match.");
+            }
+
+            createdTodo.setTodoText("Re-tag it all");
+            todoService.updateTodo(createdTodo);
+
+            if (todoCollectionVersion.matches(listETag, todoCollectionVersion.getListETag(MediaType.APPLICATION_JSON))
+                    || todoCollectionVersion.matches(todoETag,
+                            todoCollectionVersion.getTodoETag(createdTodo.getId(), MediaType.APPLICATION_JSON))) {
+                throw new Exception("ETags did not change after an update.");
+            }
+
+            todoService.deleteTodo(createdTodo.getId());
+        });
+    }
+
+    @Test
+    void whenCachedTodoIsDeleted_thenTodoShouldNotBeFound() {
+
+        assertThrows(Exception.class, () -> {
+            Todo createdTodo = todoService.createTodo("Cache and delete it all");
+
+            todoService.getTodo(createdTodo.getId());
+            todoService.deleteTodo(createdTodo.getId());
+
+            todoService.getTodo(createdTodo.getId());
+        });
+    }
     
     @Test
     void whenInvalidTodo_thenTodoShouldNotBeUpdated() {
@@ -0,0 +1,161 @@
+package app.demo.todoapi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+
+public class AsyncLogDispatcherTest {
+
+    private Logger logger;
+
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        var context = new LoggerContext();
+        appender = new ListAppender<ILoggingEvent>();
+        appender.setContext(context);
+        appender.start();
+
+        logger = context.getLogger(AsyncLogDispatcherTest.class);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @Test
+    void always_keepCallerThreadAndStackTrace() throws Exception {
+        var dispatcher = new AsyncLogDispatcher(16, AsyncLogDispatcher.DropPolicy.DROP_NEWEST, 100);
+
+        dispatcher.dispatch(logger, Level.ERROR, "Failed to update '{}'", new Object[] { "x" },
+                new IllegalStateException("boom"));
+        dispatcher.destroy();
+
+        assertEquals(1, appender.list.size());
+        var event = appender.list.get(0);
+        assertEquals("Failed to update 'x'", event.getFormattedMessage());
+        assertEquals(Thread.currentThread().getName(), event.getThreadName());
+        assertNotNull(event.getThrowableProxy());
+        assertEquals("boom", event.getThrowableProxy().getMessage());
+    }
+
+    @Test
+    void whenQueueIsFull_thenEventsShouldBeDroppedAndCounted() throws Exception {
+        var release = new CountDownLatch(1);
+        var blocking = new BlockingAppender(release);
+        blocking.setContext(logger.getLoggerContext());
+        blocking.start();
+        logger.addAppender(blocking);
+
+        var dispatcher = new AsyncLogDispatcher(5, AsyncLogDispatcher.DropPolicy.DROP_NEWEST, 100);
+        // The writer thread takes the first event and waits in the appender
+        dispatcher.dispatch(logger, Level.WARN, "first", null, null);
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(logger, Level.WARN, "warn {}", new Object[] { i }, null);
+        }
+        assertEquals(5, dispatcher.getQueueDepth());
+        assertEquals(5, dispatcher.getDropped());
+
+        // Below WARN, events are dropped before the queue is full
+        dispatcher.dispatch(logger, Level.INFO, "info", null, null);
+        assertEquals(6, dispatcher.getDropped());
+
+        release.countDown();
+        dispatcher.destroy();
+
+        assertEquals(6, appender.list.size());
+        assertEquals("warn 4", appender.list.get(5).getFormattedMessage());
+    }
+
+    @Test
+    void whenQueueIsFullAndDropOldest_thenNewestEventsShouldBeKept() throws Exception {
+        var release = new CountDownLatch(1);
+        var blocking = new BlockingAppender(release);
+        blocking.setContext(logger.getLoggerContext());
+        blocking.start();
+        logger.addAppender(blocking);
+
+        var dispatcher = new AsyncLogDispatcher(5, AsyncLogDispatcher.DropPolicy.DROP_OLDEST, 100);
+        dispatcher.dispatch(logger, Level.WARN, "first", null, null);
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(logger, Level.WARN, "warn {}", new Object[] { i }, null);
+        }
+        assertEquals(5, dispatcher.getDropped());
+
+        release.countDown();
+        dispatcher.destroy();
+
+        assertEquals(6, appender.list.size());
+        assertEquals("warn 5", appender.list.get(1).getFormattedMessage());
+        assertEquals("warn 9", appender.list.get(5).getFormattedMessage());
+    }
+
+    @Test
+    void whenArgumentChangesAfterLogging_thenMessageShouldShowLoggedValue() throws Exception {
+        var release = new CountDownLatch(1);
+        var blocking = new BlockingAppender(release);
+        blocking.setContext(logger.getLoggerContext());
+        blocking.start();
+        logger.addAppender(blocking);
+
+        var dispatcher = new AsyncLogDispatcher(16, AsyncLogDispatcher.DropPolicy.DROP_NEWEST, 100);
+        dispatcher.dispatch(logger, Level.WARN, "first", null, null);
+        assertTrue(blocking.entered.await(5, TimeUnit.SECONDS));
+
+        // Queued behind the held event, then changed by the caller
+        List<String> todoTexts = new ArrayList<String>(List.of("a"));
+        dispatcher.dispatch(logger, Level.INFO, "Todos {}", new Object[] { todoTexts }, null);
+        todoTexts.add("b");
+
+        release.countDown();
+        dispatcher.destroy();
+
+        assertEquals(2, appender.list.size());
+        assertEquals("Todos [a]", appender.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    void always_parseDropPolicy() {
+        assertEquals(AsyncLogDispatcher.DropPolicy.DROP_OLDEST, AsyncLogDispatcher.DropPolicy.parse("drop-oldest"));
+        assertEquals(AsyncLogDispatcher.DropPolicy.BLOCK, AsyncLogDispatcher.DropPolicy.parse(" Block "));
+        assertEquals(AsyncLogDispatcher.DropPolicy.DROP_NEWEST, AsyncLogDispatcher.DropPolicy.parse(null));
+    }
+
+    // Holds the writer thread on its first event until released
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
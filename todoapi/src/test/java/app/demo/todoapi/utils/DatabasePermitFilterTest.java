@@ -0,0 +1,37 @@
+package app.demo.todoapi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class DatabasePermitFilterTest {
+
+    @Test
+    void whenNoPermitIsFree_thenOnlyDatabaseRequestsShouldBeRejected() throws Exception {
+        // No permits at all; requests that use the database can never get one
+        var filter = new DatabasePermitFilter(0, 1, new SimpleMeterRegistry(),
+                request -> !"GET".equals(request.getMethod()));
+
+        var cachedRequestChain = new MockFilterChain();
+        var cachedResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/todos/"), cachedResponse, cachedRequestChain);
+        assertNotNull(cachedRequestChain.getRequest());
+        assertEquals(HttpStatus.OK.value(), cachedResponse.getStatus());
+
+        var databaseRequestChain = new MockFilterChain();
+        var databaseResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/todos/"), databaseResponse, databaseRequestChain);
+        assertNull(databaseRequestChain.getRequest());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), databaseResponse.getStatus());
+        assertEquals("1", databaseResponse.getHeader(HttpHeaders.RETRY_AFTER));
+    }
+}
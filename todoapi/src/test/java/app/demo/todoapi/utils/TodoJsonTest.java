@@ -0,0 +1,66 @@
+package app.demo.todoapi.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import app.demo.todoapi.dto.Todo;
+
+public class TodoJsonTest {
+
+    private static final Instant CREATED = Instant.parse("2022-07-01T10:00:00.123Z");
+
+    @Test
+    void always_writeDatesAsIsoStrings() throws Exception {
+        var todo = new Todo(UUID.randomUUID(), "Dates", CREATED, null, false);
+
+        var json = TodoJson.writerFor(Todo.class).writeValueAsString(todo);
+
+        assertTrue(json.contains("\"createdDateTime\":\"2022-07-01T10:00:00.123Z\""), json);
+    }
+
+    // The compact form of json-dates-as-epoch-millis
+    @Test
+    void whenDatesAreEpochMillis_thenTheyShouldRoundTrip() throws Exception {
+        var todo = new Todo(UUID.randomUUID(), "Dates", CREATED, CREATED.plusSeconds(60), true);
+        var epochMillisWriter = TodoJson.writerFor(Todo.class)
+                .with(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .without(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+
+        var json = epochMillisWriter.writeValueAsString(todo);
+        assertTrue(json.contains("\"createdDateTime\":" + CREATED.toEpochMilli()), json);
+
+        var retVal = TodoJson.getObjectMapper().readValue(json, Todo.class);
+        assertEquals(CREATED, retVal.getCreatedDateTime());
+        assertEquals(CREATED.plusSeconds(60), retVal.getCompletedDateTime());
+    }
+
+    // As todoweb asks (Smile first), as browsers ask, and without a header
+    @Test
+    void always_negotiateRepresentationAsSpringDoes() {
+        assertEquals(TodoJson.APPLICATION_SMILE,
+                TodoJson.getRepresentation("application/x-jackson-smile, application/json"));
+        assertEquals(MediaType.APPLICATION_JSON,
+                TodoJson.getRepresentation("application/json, application/x-jackson-smile;q=0.5"));
+        assertEquals(MediaType.APPLICATION_JSON, TodoJson.getRepresentation("text/html, */*;q=0.8"));
+        assertEquals(MediaType.APPLICATION_JSON, TodoJson.getRepresentation(null));
+    }
+
+    @Test
+    void always_roundTripContinuationToken() {
+        var createdDateTime = Utils.now();
+        var id = UUID.randomUUID();
+
+        var token = ContinuationToken.decode(new ContinuationToken(createdDateTime, id).encode());
+
+        assertEquals(createdDateTime, token.getCreatedDateTime());
+        assertEquals(id, token.getId());
+    }
+}
@@ -1,8 +1,41 @@
 package app.demo.todoweb;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
 import app.demo.todoweb.utils.AppLogger;
+import app.demo.todoweb.utils.AsyncLogDispatcher;
+import app.demo.todoweb.utils.DownstreamCallMetrics;
+import app.demo.todoweb.utils.TodoJson;
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 @ConfigurationProperties(prefix = "app.demo.todoweb")
@@ -12,6 +45,153 @@ public class AppConfig {
     private String applicationClientId;
     private String debugAuthToken;
     private String todoApiUri;
+    private int todoApiPageSize = 200;
+    private long todoListMicroCacheMillis = 200;
+    private long todoListLastKnownMaxAgeMillis = 5000;
+    private long todoListSharedWaitMillis = 30000;
+    private long apiHealthCheckIntervalSeconds = 10;
+    private long apiHealthCheckTimeoutMillis = 2000;
+    private long apiHealthCheckTtlSeconds = 30;
+    private long apiSlowResponseMillis = 500;
+    private int apiCircuitFailureThreshold = 3;
+    private long apiCircuitOpenSeconds = 30;
+    private int todoApiMaxConnections = 100;
+    private int todoApiPendingAcquireMaxCount = 1000;
+    private long todoApiPendingAcquireTimeoutMillis = 5000;
+    private long todoApiMaxIdleSeconds = 30;
+    private long todoApiMaxLifeSeconds = 300;
+    private int todoApiConnectTimeoutMillis = 2000;
+    private long todoApiResponseTimeoutMillis = 10000;
+    private String apiPassThrough = "false";
+    private String executionMode = "platform";
+    private String todoApiDatesAsEpochMillis = "false";
+    private String todoApiWireFormat = "smile";
+    private int logQueueCapacity = 8192;
+    private String logDropPolicy = "drop-newest";
+    private long logBlockTimeoutMillis = 100;
+
+    // One client (and connection pool) for all calls to the API instead of a new
+    // client per call. Built from Boot's WebClient.Builder, so the codecs and the
+    // http.client.requests metrics are configured as for any other client; the pool
+    // metrics (reactor.netty.connection.provider.*) go to the global Micrometer
+    // registry, which includes the Prometheus one
+    @Bean
+    public WebClient todoApiWebClient(WebClient.Builder webClientBuilder,
+            DownstreamCallMetrics downstreamCallMetrics, ObjectMapper objectMapper) {
+        LOGGER.debug("Creating the Todo API client (max {} connections, {} pending acquires)",
+                todoApiMaxConnections, todoApiPendingAcquireMaxCount);
+
+        var connectionProvider = ConnectionProvider.builder("todoapi")
+                .maxConnections(todoApiMaxConnections)
+                .pendingAcquireMaxCount(todoApiPendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(todoApiPendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofSeconds(todoApiMaxIdleSeconds))
+                .maxLifeTime(Duration.ofSeconds(todoApiMaxLifeSeconds))
+                .evictInBackground(Duration.ofSeconds(todoApiMaxIdleSeconds))
+                .metrics(true)
+                .build();
+
+        var httpClient = HttpClient.create(connectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, todoApiConnectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(todoApiResponseTimeoutMillis));
+
+        var builder = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(downstreamCallMetrics.exchangeFilter());
+        if (todoApiUri != null) {
+            builder.baseUrl(todoApiUri);
+        }
+        // Only the requests to the API; /api of todoweb keeps ISO-8601 dates
+        if (getTodoApiDatesAsEpochMillis()) {
+            var epochMillisMapper = objectMapper.copy()
+                    .enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    .disable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS);
+            builder.codecs(codecs -> codecs.defaultCodecs()
+                    .jackson2JsonEncoder(new Jackson2JsonEncoder(epochMillisMapper, MediaType.APPLICATION_JSON)));
+        }
+        return builder.build();
+    }
+
+    @Bean
+    public WebMvcConfigurer downstreamCallMetricsConfigurer(DownstreamCallMetrics downstreamCallMetrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(downstreamCallMetrics);
+            }
+        };
+    }
+
+    // execution-mode: virtual serves each request on a new virtual thread, so a page
+    // waiting in WebClient.block() does not hold one of Tomcat's platform threads
+    // (server.tomcat.threads.max). Needs Java 21; on an older runtime the platform
+    // threads are kept. The API calls are still bounded by the client's connection
+    // pool (todo-api-max-connections, todo-api-pending-acquire-max-count)
+    @Bean
+    @ConditionalOnProperty(prefix = "app.demo.todoweb", name = "execution-mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadExecutorCustomizer() {
+        return protocolHandler -> {
+            // The build targets Java 11, so the Java 21 API is looked up by reflection
+            ExecutorService executor;
+            try {
+                executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                        .invoke(null);
+            } catch (Exception ex) {
+                LOGGER.error(String.format(
+                        "Virtual threads are not available in Java %s, serving requests on platform threads",
+                        System.getProperty("java.specification.version")));
+                return;
+            }
+            LOGGER.debug("Serving requests on virtual threads");
+            protocolHandler.setExecutor(executor);
+        };
+    }
+
+    // Boot registers Module beans with its ObjectMapper, which the HTTP message
+    // converters and codecs use
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    // The API may send dates as epoch milliseconds (its json-dates-as-epoch-millis);
+    // Jackson would read a number as seconds
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jsonDatesCustomizer() {
+        return builder -> builder.featuresToDisable(DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+
+    // Smile (binary JSON) codecs configured as Spring's ObjectMapper; Boot applies codec
+    // customizers to the WebClient.Builder of todoApiWebClient(..). The builder is a new
+    // one per injection point
+    @Bean
+    public CodecCustomizer smileCodecCustomizer(Jackson2ObjectMapperBuilder builder) {
+        var smileMapper = TodoJson.createSmileMapper(builder);
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper));
+        };
+    }
+
+    // The toString() of the todo types serializes with the same mapper (see TodoJson)
+    @Bean
+    public InitializingBean todoJsonInitializer(ObjectMapper objectMapper) {
+        return () -> TodoJson.setObjectMapper(objectMapper);
+    }
+
+    // AppLogger's events are written on a background thread from here on; log-drop-policy
+    // (drop-newest, drop-oldest or block) decides what happens when the queue is full
+    @Bean
+    public AsyncLogDispatcher asyncLogDispatcher() {
+        LOGGER.debug("Logging through a queue of {} events (drop policy '{}')", logQueueCapacity, logDropPolicy);
+
+        var dispatcher = new AsyncLogDispatcher(logQueueCapacity, AsyncLogDispatcher.DropPolicy.parse(logDropPolicy),
+                logBlockTimeoutMillis);
+        AppLogger.setDispatcher(dispatcher);
+        return dispatcher;
+    }
 
     public void setApplicationClientId(String applicationClientId) {
         this.applicationClientId = applicationClientId;
@@ -74,6 +254,184 @@ public class AppConfig {
         this.todoApiUri = todoApiUri;
     }
 
+    public int getTodoApiPageSize() {
+        return todoApiPageSize;
+    }
+
+    public void setTodoApiPageSize(int todoApiPageSize) {
+        this.todoApiPageSize = todoApiPageSize;
+    }
+
+    public long getTodoListMicroCacheMillis() {
+        return todoListMicroCacheMillis;
+    }
+
+    public void setTodoListMicroCacheMillis(long todoListMicroCacheMillis) {
+        this.todoListMicroCacheMillis = todoListMicroCacheMillis;
+    }
+
+    public long getTodoListLastKnownMaxAgeMillis() {
+        return todoListLastKnownMaxAgeMillis;
+    }
+
+    public void setTodoListLastKnownMaxAgeMillis(long todoListLastKnownMaxAgeMillis) {
+        this.todoListLastKnownMaxAgeMillis = todoListLastKnownMaxAgeMillis;
+    }
+
+    // How long a list read waits for a fetch of another request in flight (see
+    // SingleFlight) before it fails
+    public long getTodoListSharedWaitMillis() {
+        return todoListSharedWaitMillis;
+    }
+
+    public void setTodoListSharedWaitMillis(long todoListSharedWaitMillis) {
+        this.todoListSharedWaitMillis = todoListSharedWaitMillis;
+    }
+
+    public long getApiHealthCheckIntervalSeconds() {
+        return apiHealthCheckIntervalSeconds;
+    }
+
+    public void setApiHealthCheckIntervalSeconds(long apiHealthCheckIntervalSeconds) {
+        this.apiHealthCheckIntervalSeconds = apiHealthCheckIntervalSeconds;
+    }
+
+    public long getApiHealthCheckTimeoutMillis() {
+        return apiHealthCheckTimeoutMillis;
+    }
+
+    public void setApiHealthCheckTimeoutMillis(long apiHealthCheckTimeoutMillis) {
+        this.apiHealthCheckTimeoutMillis = apiHealthCheckTimeoutMillis;
+    }
+
+    public long getApiHealthCheckTtlSeconds() {
+        return apiHealthCheckTtlSeconds;
+    }
+
+    public void setApiHealthCheckTtlSeconds(long apiHealthCheckTtlSeconds) {
+        this.apiHealthCheckTtlSeconds = apiHealthCheckTtlSeconds;
+    }
+
+    public long getApiSlowResponseMillis() {
+        return apiSlowResponseMillis;
+    }
+
+    public void setApiSlowResponseMillis(long apiSlowResponseMillis) {
+        this.apiSlowResponseMillis = apiSlowResponseMillis;
+    }
+
+    public int getApiCircuitFailureThreshold() {
+        return apiCircuitFailureThreshold;
+    }
+
+    public void setApiCircuitFailureThreshold(int apiCircuitFailureThreshold) {
+        this.apiCircuitFailureThreshold = apiCircuitFailureThreshold;
+    }
+
+    public long getApiCircuitOpenSeconds() {
+        return apiCircuitOpenSeconds;
+    }
+
+    public void setApiCircuitOpenSeconds(long apiCircuitOpenSeconds) {
+        this.apiCircuitOpenSeconds = apiCircuitOpenSeconds;
+    }
+
+    public int getTodoApiMaxConnections() {
+        return todoApiMaxConnections;
+    }
+
+    public void setTodoApiMaxConnections(int todoApiMaxConnections) {
+        this.todoApiMaxConnections = todoApiMaxConnections;
+    }
+
+    public int getTodoApiPendingAcquireMaxCount() {
+        return todoApiPendingAcquireMaxCount;
+    }
+
+    public void setTodoApiPendingAcquireMaxCount(int todoApiPendingAcquireMaxCount) {
+        this.todoApiPendingAcquireMaxCount = todoApiPendingAcquireMaxCount;
+    }
+
+    public long getTodoApiPendingAcquireTimeoutMillis() {
+        return todoApiPendingAcquireTimeoutMillis;
+    }
+
+    public void setTodoApiPendingAcquireTimeoutMillis(long todoApiPendingAcquireTimeoutMillis) {
+        this.todoApiPendingAcquireTimeoutMillis = todoApiPendingAcquireTimeoutMillis;
+    }
+
+    public long getTodoApiMaxIdleSeconds() {
+        return todoApiMaxIdleSeconds;
+    }
+
+    public void setTodoApiMaxIdleSeconds(long todoApiMaxIdleSeconds) {
+        this.todoApiMaxIdleSeconds = todoApiMaxIdleSeconds;
+    }
+
+    public long getTodoApiMaxLifeSeconds() {
+        return todoApiMaxLifeSeconds;
+    }
+
+    public void setTodoApiMaxLifeSeconds(long todoApiMaxLifeSeconds) {
+        this.todoApiMaxLifeSeconds = todoApiMaxLifeSeconds;
+    }
+
+    public int getTodoApiConnectTimeoutMillis() {
+        return todoApiConnectTimeoutMillis;
+    }
+
+    public void setTodoApiConnectTimeoutMillis(int todoApiConnectTimeoutMillis) {
+        this.todoApiConnectTimeoutMillis = todoApiConnectTimeoutMillis;
+    }
+
+    public long getTodoApiResponseTimeoutMillis() {
+        return todoApiResponseTimeoutMillis;
+    }
+
+    public void setTodoApiResponseTimeoutMillis(long todoApiResponseTimeoutMillis) {
+        this.todoApiResponseTimeoutMillis = todoApiResponseTimeoutMillis;
+    }
+
+    public void setExecutionMode(String executionMode) {
+        this.executionMode = executionMode;
+    }
+
+    public void setTodoApiDatesAsEpochMillis(String todoApiDatesAsEpochMillis) {
+        this.todoApiDatesAsEpochMillis = todoApiDatesAsEpochMillis;
+    }
+
+    public void setTodoApiWireFormat(String todoApiWireFormat) {
+        this.todoApiWireFormat = todoApiWireFormat;
+    }
+
+    public void setLogQueueCapacity(int logQueueCapacity) {
+        this.logQueueCapacity = logQueueCapacity;
+    }
+
+    public void setLogDropPolicy(String logDropPolicy) {
+        this.logDropPolicy = logDropPolicy;
+    }
+
+    public void setLogBlockTimeoutMillis(long logBlockTimeoutMillis) {
+        this.logBlockTimeoutMillis = logBlockTimeoutMillis;
+    }
+
+    public String getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getLogQueueCapacity() {
+        return logQueueCapacity;
+    }
+
+    public String getLogDropPolicy() {
+        return logDropPolicy;
+    }
+
+    public long getLogBlockTimeoutMillis() {
+        return logBlockTimeoutMillis;
+    }
+
     public String getVersion() {
         String version = "Unknown";
         try {
@@ -99,4 +457,27 @@ public class AppConfig {
         return environment;
     }
 
-}
\ No newline at end of file
+    public void setApiPassThrough(String apiPassThrough) {
+        this.apiPassThrough = apiPassThrough;
+    }
+
+    // Dates in the requests to the API are sent as epoch milliseconds instead of
+    // ISO-8601 strings
+    public boolean getTodoApiDatesAsEpochMillis() {
+        return todoApiDatesAsEpochMillis != null && todoApiDatesAsEpochMillis.toLowerCase().trim().equals("true");
+    }
+
+    // Format of the bodies exchanged with the API: Smile unless todo-api-wire-format is
+    // "json". Not used by the pass-through API, which forwards the browser's headers
+    public MediaType getTodoApiMediaType() {
+        if (todoApiWireFormat != null && todoApiWireFormat.toLowerCase().trim().equals("json")) {
+            return MediaType.APPLICATION_JSON;
+        }
+        return TodoJson.APPLICATION_SMILE;
+    }
+
+    // todo.js calls /api/pass-through/todos/ instead of /api/todos/
+    public boolean getApiPassThrough() {
+        return apiPassThrough != null && apiPassThrough.toLowerCase().trim().equals("true");
+    }
+}
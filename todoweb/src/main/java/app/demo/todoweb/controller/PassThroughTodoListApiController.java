@@ -0,0 +1,148 @@
+package app.demo.todoweb.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.demo.todoweb.repository.PassThroughTodoRepository;
+import app.demo.todoweb.utils.AppLogger;
+
+import io.netty.handler.timeout.TimeoutException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+//Same API as TodoListApiController, under /api/pass-through, for todo.js (see
+//AppConfig.getApiPassThrough()). The API's JSON is streamed to the browser as it is
+//and the browser's JSON to the API, so a call costs no JSON decoding and encoding
+//in todoweb. The payloads are not validated here; the API checks the same things as
+//TodoListApiController (e.g. an empty todo text) and its 4xx is passed on. Its 5xx
+//and failed calls become 502 (504 on a timeout), as there is no todoweb error to
+//report. The handlers are async, no Tomcat thread waits for the API
+@RestController
+@RequestMapping(value = {"/api/pass-through"})
+public class PassThroughTodoListApiController {
+
+	public static final AppLogger LOGGER = new AppLogger(PassThroughTodoListApiController.class);
+
+	// Response headers passed on to the browser; Content-Length is set by the
+	// container from what is written
+	private static final List<String> FORWARDED_RESPONSE_HEADERS = List.of(HttpHeaders.CONTENT_TYPE,
+			HttpHeaders.ETAG, HttpHeaders.CACHE_CONTROL, HttpHeaders.LAST_MODIFIED);
+
+	private PassThroughTodoRepository repository;
+
+	@Autowired
+	public PassThroughTodoListApiController(PassThroughTodoRepository repository) {
+		this.repository = repository;
+	}
+
+	@GetMapping(value = {"todos/"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Void> getTodos(@RequestHeader HttpHeaders headers, HttpServletResponse response) {
+
+		LOGGER.debug("All TODOs retrieval pass-through API called");
+
+		return passThrough(repository.findAll(headers), response);
+	}
+
+	@GetMapping(value = "todos/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Void> getTodo(@PathVariable(name = "id", required = true) UUID id,
+			@RequestHeader HttpHeaders headers, HttpServletResponse response) {
+
+		LOGGER.debug("Single TODO retrieval pass-through API called");
+
+		return passThrough(repository.findById(id, headers), response);
+	}
+
+	@PostMapping(value = "todos/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Void> createTodo(@RequestBody byte[] newTodo, @RequestHeader HttpHeaders headers,
+			HttpServletResponse response) {
+
+		LOGGER.debug("TODO creation pass-through API called");
+
+		return passThrough(repository.insert(newTodo, headers), response);
+	}
+
+	@PatchMapping(value = "todos/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Void> updateTodo(@PathVariable(name = "id", required = true) UUID id, @RequestBody byte[] todo,
+			@RequestHeader HttpHeaders headers, HttpServletResponse response) {
+
+		LOGGER.debug("TODO update pass-through API called");
+
+		return passThrough(repository.update(id, todo, headers), response);
+	}
+
+	@PatchMapping(value = "todos/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<Void> updateTodos(@RequestBody byte[] modifiedTodos, @RequestHeader HttpHeaders headers,
+			HttpServletResponse response) {
+
+		LOGGER.debug("TODO LIST update pass-through API called");
+
+		return passThrough(repository.updateAll(modifiedTodos, headers), response);
+	}
+
+	@DeleteMapping(value = "todos/{id}")
+	public Mono<Void> deleteTodo(@PathVariable(name = "id", required = true) UUID id,
+			@RequestHeader HttpHeaders headers, HttpServletResponse response) {
+
+		LOGGER.debug("TODO delete pass-through API called");
+
+		return passThrough(repository.deleteById(id, headers), response);
+	}
+
+	private Mono<Void> passThrough(Mono<ResponseEntity<Flux<DataBuffer>>> apiResponse, HttpServletResponse response) {
+		return apiResponse
+				.flatMap(entity -> {
+					var body = entity.getBody() != null ? entity.getBody() : Flux.<DataBuffer>empty();
+					if (entity.getStatusCode().is5xxServerError()) {
+						LOGGER.error(String.format("The API returned '%s'", entity.getStatusCodeValue()));
+						response.setStatus(HttpStatus.BAD_GATEWAY.value());
+						return body.doOnNext(DataBufferUtils::release).then();
+					}
+
+					response.setStatus(entity.getStatusCodeValue());
+					for (var name : FORWARDED_RESPONSE_HEADERS) {
+						var value = entity.getHeaders().getFirst(name);
+						if (value != null) {
+							response.setHeader(name, value);
+						}
+					}
+					// The servlet output stream blocks, so it is not written to on the
+					// connection's event loop
+					return Mono.fromCallable(response::getOutputStream)
+							.flatMap(outputStream -> DataBufferUtils
+									.write(body.publishOn(Schedulers.boundedElastic()), outputStream)
+									.doOnNext(DataBufferUtils::release)
+									.then());
+				})
+				.onErrorResume(ex -> {
+					LOGGER.error(String.format("Passing the request through to the API failed: %s", ex.getMessage()));
+					if (!response.isCommitted()) {
+						// The client's response timeout is a netty ReadTimeoutException
+						// wrapped in a WebClientRequestException
+						response.setStatus(ex.getCause() instanceof TimeoutException
+								? HttpStatus.GATEWAY_TIMEOUT.value()
+								: HttpStatus.BAD_GATEWAY.value());
+					}
+					return Mono.empty();
+				});
+	}
+}
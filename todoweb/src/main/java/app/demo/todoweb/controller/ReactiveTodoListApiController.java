@@ -0,0 +1,173 @@
+package app.demo.todoweb.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import app.demo.todoweb.dto.NewTodo;
+import app.demo.todoweb.dto.Todo;
+import app.demo.todoweb.exception.NewTodoIsEmptyException;
+import app.demo.todoweb.exception.TodoCreationFailedException;
+import app.demo.todoweb.exception.TodoDeleteFailedException;
+import app.demo.todoweb.exception.TodoIdCannotBeEmptyException;
+import app.demo.todoweb.exception.TodoIsEmptyException;
+import app.demo.todoweb.exception.TodoNotFoundException;
+import app.demo.todoweb.exception.TodoUpdateFailedException;
+import app.demo.todoweb.exception.TodosRetrievalFailedException;
+import app.demo.todoweb.service.ReactiveTodoService;
+import app.demo.todoweb.utils.AppLogger;
+
+import reactor.core.publisher.Mono;
+
+//Same API as TodoListApiController, under /api/reactive. The handlers return a Mono,
+//which Spring MVC handles as an async request: the Tomcat thread is released as soon
+//as the handler returns and the response is written when the API call completes, so
+//a slow API does not hold one Tomcat thread per waiting request
+@RestController
+@RequestMapping(value = {"/api/reactive"})
+public class ReactiveTodoListApiController {
+
+	public static final AppLogger LOGGER = new AppLogger(ReactiveTodoListApiController.class);
+
+	private ReactiveTodoService todoService;
+
+	@Autowired
+	public ReactiveTodoListApiController(ReactiveTodoService service) {
+		this.todoService = service;
+	}
+
+	@GetMapping(value = {"todos/"}, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<List<Todo>>> getTodos() {
+
+		LOGGER.debug("All TODOs retrieval reactive API called");
+
+		return todoService.getTodos()
+				.collectList()
+				.map(retVal -> new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodosRetrievalFailedException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@GetMapping(value = "todos/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> getTodo(@PathVariable(name = "id", required = true) String id) {
+
+		LOGGER.debug("Single TODO retrieval reactive API called");
+
+		return Mono.fromCallable(() -> UUID.fromString(id))
+				.flatMap(todoService::getTodo)
+				.map(retVal -> new ResponseEntity<Todo>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoNotFoundException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.NOT_FOUND));
+					}
+					if (ex instanceof TodosRetrievalFailedException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PostMapping(value = "todos/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> createTodo(@RequestBody NewTodo newTodo) {
+
+		LOGGER.debug("TODO creation reactive API called");
+
+		if (newTodo == null) {
+			return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+		}
+		return todoService.createTodo(newTodo.getTodoText())
+				.map(retVal -> new ResponseEntity<Todo>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof NewTodoIsEmptyException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					if (ex instanceof TodoCreationFailedException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_GATEWAY));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PatchMapping(value = "todos/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> updateTodo(@PathVariable(name = "id", required = true) String id, @RequestBody Todo todo) {
+
+		LOGGER.debug("TODO update reactive API called");
+
+		return todoService.updateTodo(todo)
+				.map(retVal -> new ResponseEntity<Todo>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoIsEmptyException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					if (ex instanceof TodoNotFoundException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.NOT_FOUND));
+					}
+					if (ex instanceof TodoUpdateFailedException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_GATEWAY));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@PatchMapping(value = "todos/", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<List<Todo>>> updateTodos(@RequestBody List<Todo> modifiedTodos) {
+
+		LOGGER.debug("TODO LIST update reactive API called using updateTodos(...)");
+
+		return todoService.updateTodos(modifiedTodos)
+				.collectList()
+				.map(retVal -> new ResponseEntity<List<Todo>>(retVal, HttpStatus.OK))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoIsEmptyException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_REQUEST));
+					}
+					if (ex instanceof TodoUpdateFailedException) {
+						return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.BAD_GATEWAY));
+					}
+					return Mono.just(new ResponseEntity<List<Todo>>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+
+	@DeleteMapping(value = "todos/{id}", consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@ResponseBody
+	public Mono<ResponseEntity<Todo>> deleteTodo(@PathVariable(name = "id", required = true) String id) {
+
+		LOGGER.debug("TODO delete reactive API called");
+
+		return Mono.fromCallable(() -> UUID.fromString(id))
+				.flatMap(todoService::deleteTodo)
+				.then(Mono.just(new ResponseEntity<Todo>(HttpStatus.OK)))
+				.onErrorResume(ex -> {
+					if (ex instanceof TodoNotFoundException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.NOT_FOUND));
+					}
+					if (ex instanceof TodoDeleteFailedException || ex instanceof TodoIdCannotBeEmptyException
+							|| ex instanceof IllegalArgumentException) {
+						return Mono.just(new ResponseEntity<Todo>(HttpStatus.BAD_REQUEST));
+					}
+					return Mono.just(new ResponseEntity<Todo>(HttpStatus.INTERNAL_SERVER_ERROR));
+				});
+	}
+}
@@ -1,7 +1,7 @@
 package app.demo.todoweb.controller;
 
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
+import app.demo.todoweb.AppConfig;
 import app.demo.todoweb.dto.Todo;
 import app.demo.todoweb.dto.TodoPage;
 import app.demo.todoweb.service.TodoService;
@@ -25,9 +26,12 @@ public class TodoListWebController {
 
 	private TodoService todoService;
 
+	private AppConfig appConfig;
+
 	@Autowired
-	public TodoListWebController(TodoService service) {
+	public TodoListWebController(TodoService service, AppConfig appConfig) {
 		this.todoService = service;
+		this.appConfig = appConfig;
 	}
 
 	@GetMapping("/")
@@ -96,7 +100,7 @@ public class TodoListWebController {
 	@RequestMapping(value = "/submit", method = RequestMethod.POST)
 	public String submit(@ModelAttribute TodoPage page, Model model) {
 
-		LOGGER.debug(String.format("TODO POST called with action '/submit' :\n%s", page.toString()));
+		LOGGER.debug("TODO POST called with action '/submit' :\n{}", page);
 
 		initPageHeader(model, true);
 
@@ -112,7 +116,7 @@ public class TodoListWebController {
 						String.format("Task '%s' has been saved.", Utils.shortenString(page.getTodoText())));
 
 				setCreateTodoMode(model, false);
-				LOGGER.debug(String.format("TODO POST with action '/submit' finished successfully (%s)", todo.getId()));
+				LOGGER.debug("TODO POST with action '/submit' finished successfully ({})", todo.getId());
 
 			} catch (Exception ex) {
 				LOGGER.error(String.format("Failed to save a new TODO (%s)", ex.getMessage()), ex);
@@ -134,6 +138,7 @@ public class TodoListWebController {
 		model.addAttribute("todoListStatus", "");
 		model.addAttribute("todoListMessage", "");
 		model.addAttribute("page", new TodoPage());
+		model.addAttribute("apiUri", appConfig.getApiPassThrough() ? "/api/pass-through/todos/" : "/api/todos/");
 	}
 
 	private void setFormMessage(Model model, String formStatus, String formMessage) {
@@ -193,35 +198,44 @@ public class TodoListWebController {
 		}
 	}
 
+	// All completion changes go to the API in one PATCH; the page is then rendered
+	// from the last known list with the returned TODOs merged in, so a submit costs
+	// one API call instead of two per changed TODO plus a list fetch. The list is
+	// fetched again if it is older than todo-list-last-known-max-age-millis (changes
+	// of other users) or a TODO has been added or deleted since
 	private void processTodoList(Model model, TodoPage page) {
 		LOGGER.debug("Starting to process Todo List changes");
 		try {
+			var changedTodos = new ArrayList<Todo>();
 			var todoList = page.getTodoList();
 			if (todoList != null) {
 				for (Todo todo : todoList) {
 					if (todo.getCompleted() != todo.getCompletedOrig()) {
-						LOGGER.debug(String.format("Changes in completed status of TODO '%s' detected", todo.getId()));
-						var retrievedTodo = todoService.getTodo(todo.getId());
-
-						if (todo.getCompleted() && retrievedTodo.getCompletedDateTime() == null) {
-							retrievedTodo.setCompletedDateTime(new Date());
-							var updatedTodo = todoService.updateTodo(retrievedTodo);
-							LOGGER.debug(String.format("Processing TODO '%s': completed set to 'true'",
-									updatedTodo.getId()));
-						} else if (!todo.getCompleted() && retrievedTodo.getCompletedDateTime() != null) {
-							retrievedTodo.setCompletedDateTime(null);
-							var updatedTodo = todoService.updateTodo(retrievedTodo);
-							LOGGER.debug(String.format("Processing TODO '%s': completed set to 'false'",
-									updatedTodo.getId()));
-						} else if (todo.getCompletedDateTime() != retrievedTodo.getCompletedDateTime()) {
-							LOGGER.debug(String.format("Processing TODO '%s': no update needed (1)", todo.getId()));
-						}
+						LOGGER.debug("Changes in completed status of TODO '{}' detected (completed: {})",
+								todo.getId(), todo.getCompleted());
+						// No text and no completion time: the API keeps the text and
+						// sets the completion time itself
+						changedTodos.add(new Todo(todo.getId(), null, null, null, todo.getCompleted()));
 					} else {
-						LOGGER.debug(String.format("Processing TODO '%s': no update needed (2)", todo.getId()));
+						LOGGER.debug("Processing TODO '{}': no update needed", todo.getId());
 					}
 				}
 			}
-			initPageTodoList(model);
+
+			if (changedTodos.isEmpty()) {
+				initPageTodoList(model);
+				return;
+			}
+
+			var updatedTodos = todoService.updateTodos(changedTodos);
+			LOGGER.debug("Updated {} of {} changed TODOs", updatedTodos.size(), changedTodos.size());
+
+			var todos = todoService.getLastKnownTodos();
+			if (todos == null) {
+				initPageTodoList(model);
+			} else {
+				setPageTodoList(model, todos);
+			}
 		} catch (Exception ex) {
 			LOGGER.error(String.format("An error has occured while updating TODO (%s)", ex.getMessage()), ex);
 			setTodoListMessage(model,
@@ -229,4 +243,16 @@ public class TodoListWebController {
 					"An error has occured while updating Todos. Please try again later.");
 		}
 	}
-}
\ No newline at end of file
+
+	private void setPageTodoList(Model model, List<Todo> todos) {
+		TodoPage page;
+
+		if (model.containsAttribute("page")) {
+			page = (TodoPage) model.getAttribute("page");
+		} else {
+			page = new TodoPage();
+		}
+		page.setTodoList(todos);
+		model.addAttribute("page", page);
+	}
+}
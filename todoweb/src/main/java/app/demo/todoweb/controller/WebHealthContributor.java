@@ -1,19 +1,28 @@
-//currently investigating if actuator needs to be extended
 package app.demo.todoweb.controller;
 
+import java.time.Instant;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
 
-import app.demo.todoweb.service.TodoService;
+import app.demo.todoweb.service.ApiHealthMonitor;
 import app.demo.todoweb.utils.AppLogger;
 
-@RestController
+//Reports the API reachability as last seen by ApiHealthMonitor; never calls the API
+//itself. A slow or unreachable API makes the web DEGRADED (still HTTP 200, see
+//application.yml) instead of DOWN, so probes do not restart or unroute web pods
+//for a problem they can not fix. DOWN is reserved for a problem of the web itself:
+//the background check has stopped running (ApiHealthMonitor.isStale())
+@Component
 public class WebHealthContributor implements HealthIndicator {
 
+	public static final Status DEGRADED = new Status("DEGRADED");
+
 	@Autowired
-	private TodoService todoService;
+	private ApiHealthMonitor apiHealthMonitor;
 
 	public static final AppLogger LOGGER = new AppLogger(WebHealthContributor.class);
 
@@ -22,13 +31,31 @@ public class WebHealthContributor implements HealthIndicator {
 
 		LOGGER.debug("Web health probe called");
 
-		try {
-			todoService.getTodos();
-		} catch (Exception ex) {
-			LOGGER.error("Web health probe failed: ", ex);
-			return Health.outOfService().withException(ex).build();
+		var result = apiHealthMonitor.getLastResult();
+		var circuitState = apiHealthMonitor.getCircuitState();
+
+		Health.Builder builder;
+		if (result == null) {
+			builder = Health.unknown();
+		} else if (apiHealthMonitor.isStale()) {
+			builder = Health.down().withDetail("reason", "The last API check is out of date");
+		} else if (!result.isUp() || circuitState != ApiHealthMonitor.CircuitState.CLOSED) {
+			builder = Health.status(DEGRADED).withDetail("error", String.valueOf(result.getError()));
+		} else if (apiHealthMonitor.isSlow(result)) {
+			builder = Health.status(DEGRADED).withDetail("reason", "Slow API responses");
+		} else {
+			builder = Health.up();
+		}
+
+		builder.withDetail("apiCircuit", circuitState.toString());
+		if (result != null) {
+			builder.withDetail("apiCheckedAt", Instant.ofEpochMilli(result.getCheckedAtMillis()).toString())
+					.withDetail("apiResponseMillis", result.getDurationMillis());
 		}
-		LOGGER.debug("Web health probe returned OK");
-		return Health.up().build();
+
+		var health = builder.build();
+
+		LOGGER.debug("Web health probe returned {}", health.getStatus());
+		return health;
 	}
-}
\ No newline at end of file
+}
@@ -1,9 +1,9 @@
 package app.demo.todoweb.dto;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.demo.todoweb.utils.AppLogger;
+import app.demo.todoweb.utils.TodoJson;
 import app.demo.todoweb.utils.Utils;
 
 public class NewTodo {
@@ -30,11 +30,11 @@ public class NewTodo {
     @Override
     public String toString() {
         try {
-            return new ObjectMapper().writeValueAsString(this);
+            return TodoJson.writerFor(NewTodo.class).writeValueAsString(this);
         } catch (JsonProcessingException ex) {
             LOGGER.error(String.format("Failed to convert NewTodo into a string: (%s)", ex.getMessage()), ex);
         }
-        // This is just for the impossible case where the ObjectMapper throws an
+        // This is just for the impossible case where the ObjectWriter throws an
         // exception
         return "{" +
                 " 'todoText':'" + Utils.toJsonValueContent(todoText) + "' " +
@@ -1,13 +1,14 @@
 package app.demo.todoweb.dto;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.demo.todoweb.utils.AppLogger;
+import app.demo.todoweb.utils.TodoJson;
 import app.demo.todoweb.utils.Utils;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -15,13 +16,16 @@ public class Todo {
     
     public static final AppLogger LOGGER = new AppLogger(Todo.class);
 
+    private static final DateTimeFormatter STATUS_DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy")
+            .withZone(ZoneId.systemDefault());
+
     private UUID id;
 
     private String todoText;
 
-    private Date createdDateTime;
+    private Instant createdDateTime;
     
-    private Date completedDateTime;
+    private Instant completedDateTime;
 
     boolean completed;
     boolean completedOrig;
@@ -30,7 +34,7 @@ public class Todo {
         
     }
 
-    public Todo(UUID id, String todoText, Date createdDateTime, Date completedDateTime, boolean completed) {
+    public Todo(UUID id, String todoText, Instant createdDateTime, Instant completedDateTime, boolean completed) {
         this.id = id;
         this.completedDateTime = completedDateTime;
         this.createdDateTime = createdDateTime;
@@ -47,12 +51,9 @@ public class Todo {
             return false;
         Todo todo = (Todo) o;
         return Objects.equals(id, todo.id) &&
-                ((createdDateTime == null && todo.createdDateTime == null)
-                        || (createdDateTime != null && createdDateTime.compareTo(todo.createdDateTime) == 0))
-                &&
+                Objects.equals(createdDateTime, todo.createdDateTime) &&
                 Objects.equals(todoText, todo.todoText) &&
-                ((completedDateTime == null && todo.completedDateTime == null)
-                        || (completedDateTime != null && completedDateTime.compareTo(todo.completedDateTime) == 0));
+                Objects.equals(completedDateTime, todo.completedDateTime);
     }
 
     @Override
@@ -77,19 +78,19 @@ public class Todo {
         this.todoText = todoText;
     }
 
-    public Date getCreatedDateTime() {
+    public Instant getCreatedDateTime() {
         return createdDateTime;
     }
 
-    public void setCreatedDateTime(Date createdDateTime) {
+    public void setCreatedDateTime(Instant createdDateTime) {
         this.createdDateTime = createdDateTime;
     }
 
-    public Date getCompletedDateTime() {
+    public Instant getCompletedDateTime() {
         return completedDateTime;
     }
 
-    public void setCompletedDateTime(Date completedDateTime) {
+    public void setCompletedDateTime(Instant completedDateTime) {
         this.completedDateTime = completedDateTime;
     }
 
@@ -118,22 +119,21 @@ public class Todo {
             return "";
         }
 
-        SimpleDateFormat sdf = new SimpleDateFormat("dd.MM.YYYY");
-
         if (completedDateTime != null) {
-            return "created: " + sdf.format(createdDateTime) + ", completed: " + sdf.format(completedDateTime);
+            return "created: " + STATUS_DATE_FORMAT.format(createdDateTime) + ", completed: "
+                    + STATUS_DATE_FORMAT.format(completedDateTime);
         }
-        return "created: " + sdf.format(createdDateTime);
+        return "created: " + STATUS_DATE_FORMAT.format(createdDateTime);
     }
 
     @Override
     public String toString() {
         try {
-            return new ObjectMapper().writeValueAsString(this);
+            return TodoJson.writerFor(Todo.class).writeValueAsString(this);
         } catch (JsonProcessingException ex) {
             LOGGER.error(String.format("Failed to convert Todo into a string (%s)", ex.getMessage()), ex);
         }
-        // This is just for the impossible case where the ObjectMapper throws an
+        // This is just for the impossible case where the ObjectWriter throws an
         // exception
         return "{" +
                 "'id':" + id +
@@ -4,9 +4,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import app.demo.todoweb.utils.AppLogger;
+import app.demo.todoweb.utils.TodoJson;
 import app.demo.todoweb.utils.Utils;
 
 public class TodoPage {
@@ -40,11 +40,11 @@ public class TodoPage {
     @Override
     public String toString() {
         try {
-            return new ObjectMapper().writeValueAsString(this);
+            return TodoJson.writerFor(TodoPage.class).writeValueAsString(this);
         } catch (JsonProcessingException ex) {
             LOGGER.error(String.format("Failed to convert TodoPage into a string (%s)", ex.getMessage()), ex);
         }
-        // This is just for the impossible case where the ObjectMapper throws an
+        // This is just for the impossible case where the ObjectWriter throws an
         // exception
         return "{" +
                 " 'todoText': '" + Utils.toJsonValueContent(todoText) + "', " +
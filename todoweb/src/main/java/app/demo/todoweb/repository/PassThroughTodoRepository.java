@@ -0,0 +1,92 @@
+package app.demo.todoweb.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.utils.AppLogger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Forwards requests to the API without decoding them: request bodies are sent as the
+//bytes received from the browser and response bodies come back as the DataBuffers
+//read from the API connection, so neither side goes through the JSON codecs. Every
+//status is handed back as it is (no WebClientResponseException for 4xx/5xx), the
+//caller decides how to map it. Successful writes evict the caches of TodoRepository
+@Repository
+public class PassThroughTodoRepository {
+
+    public static final AppLogger LOGGER = new AppLogger(PassThroughTodoRepository.class);
+
+    // Request headers the API understands; anything else (cookies, auth, hop-by-hop
+    // headers) is not forwarded
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(HttpHeaders.ACCEPT,
+            HttpHeaders.CONTENT_TYPE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MATCH);
+
+    @Autowired
+    private WebClient todoApiWebClient;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    // The whole list in one response (the API's default, unpaged form), so the browser gets
+    // the same JSON array as from the API controller, with the API's list ETag
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findAll(HttpHeaders requestHeaders) {
+        return exchange(HttpMethod.GET, "", null, requestHeaders, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findById(UUID id, HttpHeaders requestHeaders) {
+        return exchange(HttpMethod.GET, "/{id}", id, requestHeaders, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> insert(byte[] body, HttpHeaders requestHeaders) {
+        return exchange(HttpMethod.POST, "", null, requestHeaders, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> update(UUID id, byte[] body, HttpHeaders requestHeaders) {
+        return exchange(HttpMethod.PATCH, "/{id}", id, requestHeaders, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateAll(byte[] body, HttpHeaders requestHeaders) {
+        return exchange(HttpMethod.PATCH, "", null, requestHeaders, body);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteById(UUID id, HttpHeaders requestHeaders) {
+        return exchange(HttpMethod.DELETE, "/{id}", id, requestHeaders, null);
+    }
+
+    private Mono<ResponseEntity<Flux<DataBuffer>>> exchange(HttpMethod method, String path, UUID id,
+            HttpHeaders requestHeaders, byte[] body) {
+
+        LOGGER.debug("Passing through {} '{}' (id '{}')", method, path, id);
+
+        WebClient.RequestBodySpec request = todoApiWebClient.method(method)
+                .uri(path, id)
+                .headers(headers -> {
+                    for (var name : FORWARDED_REQUEST_HEADERS) {
+                        var values = requestHeaders.get(name);
+                        if (values != null) {
+                            headers.addAll(name, values);
+                        }
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> bodySpec = body != null ? request.bodyValue(body) : request;
+
+        return bodySpec.retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .doOnNext(response -> {
+                    if (method != HttpMethod.GET && response.getStatusCode().is2xxSuccessful()) {
+                        todoRepository.evictCached(id);
+                    }
+                });
+    }
+}
@@ -0,0 +1,165 @@
+package app.demo.todoweb.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Repository;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.AppConfig;
+import app.demo.todoweb.dto.NewTodo;
+import app.demo.todoweb.dto.Todo;
+import app.demo.todoweb.exception.TodoCreationFailedException;
+import app.demo.todoweb.exception.TodoDeleteFailedException;
+import app.demo.todoweb.exception.TodoNotFoundException;
+import app.demo.todoweb.exception.TodoUpdateFailedException;
+import app.demo.todoweb.exception.TodosRetrievalFailedException;
+import app.demo.todoweb.utils.AppLogger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Non-blocking counterpart of TodoRepository: the same API calls on the same pooled
+//WebClient, but nothing is blocked on; the results are handed back as Mono/Flux and
+//no thread waits while a request to the API is outstanding. Reads do not use the
+//caches of TodoRepository; writes evict them
+@Repository
+public class ReactiveTodoRepository {
+
+    public static final AppLogger LOGGER = new AppLogger(ReactiveTodoRepository.class);
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private WebClient todoApiWebClient;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    // Follows the continuation tokens page by page; a page is requested once the
+    // previous one has arrived
+    public Flux<Todo> findAll() {
+        int pageSize = appConfig.getTodoApiPageSize();
+
+        return findPage(pageSize, null)
+                .expand(page -> page.getContinuationToken() == null
+                        ? Mono.empty()
+                        : findPage(pageSize, page.getContinuationToken()))
+                .flatMapIterable(RepositoryTodoListPage::getTodoList)
+                .onErrorMap(ex -> !(ex instanceof TodosRetrievalFailedException), ex -> {
+                    LOGGER.error(String.format("Retrieving all TODOs failed: '%s'", ex.getMessage()));
+                    return new TodosRetrievalFailedException(ex.getMessage());
+                });
+    }
+
+    private Mono<RepositoryTodoListPage> findPage(int pageSize, String after) {
+        return todoApiWebClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.queryParam("limit", pageSize);
+                    if (after != null) {
+                        uriBuilder.queryParam("after", after);
+                    }
+                    return uriBuilder.build();
+                })
+                .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToMono(RepositoryTodoListPage.class);
+    }
+
+    public Mono<Todo> findById(UUID id) {
+        return todoApiWebClient.get()
+                .uri("/{id}", id)
+                .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND,
+                        response -> Mono.error(new TodoNotFoundException(String.format("Todo '%s' does not exist", id))))
+                .bodyToMono(Todo.class)
+                .switchIfEmpty(Mono.error(() -> new TodoNotFoundException(
+                        String.format("Todo '%s' does not exist", id))))
+                .onErrorMap(ex -> !(ex instanceof TodoNotFoundException), ex -> {
+                    LOGGER.error(String.format("Retrieving the TODO '%s' failed: %s", id, ex.getMessage()));
+                    return new TodosRetrievalFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Todo> insert(NewTodo newTodo) {
+        return todoApiWebClient.post()
+                .contentType(appConfig.getTodoApiMediaType())
+                .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                .bodyValue(newTodo)
+                .retrieve()
+                .bodyToMono(Todo.class)
+                .doOnNext(e -> todoRepository.evictCached(null))
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Todo creation failed: %s", ex.getMessage()));
+                    return new TodoCreationFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Todo> update(Todo modifiedTodo) {
+        var todo = new RepositoryTodo(modifiedTodo.getId(), modifiedTodo.getTodoText(),
+                modifiedTodo.getCreatedDateTime(), modifiedTodo.getCompletedDateTime(), modifiedTodo.getCompleted());
+
+        return todoApiWebClient.patch()
+                .uri("/{id}", modifiedTodo.getId())
+                .contentType(appConfig.getTodoApiMediaType())
+                .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                .bodyValue(todo)
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND,
+                        response -> Mono.error(new TodoNotFoundException(
+                                String.format("Todo '%s' does not exist", modifiedTodo.getId()))))
+                .bodyToMono(Todo.class)
+                .doOnNext(e -> todoRepository.evictCached(e.getId()))
+                .onErrorMap(ex -> !(ex instanceof TodoNotFoundException), ex -> {
+                    LOGGER.error(String.format("Todo update(%s) failed: %s", modifiedTodo.getId(), ex.getMessage()));
+                    return new TodoUpdateFailedException(ex.getMessage());
+                });
+    }
+
+    public Flux<Todo> updateAll(List<Todo> modifiedTodos) {
+        var modifiedRepositoryTodos = new ArrayList<RepositoryTodo>(modifiedTodos.size());
+        for (var e : modifiedTodos) {
+            modifiedRepositoryTodos.add(new RepositoryTodo(e.getId(), e.getTodoText(), e.getCreatedDateTime(),
+                    e.getCompletedDateTime(), e.getCompleted()));
+        }
+
+        return todoApiWebClient.patch()
+                .contentType(appConfig.getTodoApiMediaType())
+                .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                .bodyValue(modifiedRepositoryTodos)
+                .retrieve()
+                .bodyToFlux(RepositoryTodo.class)
+                .map(e -> new Todo(e.getId(), e.getTodoText(), e.getCreatedDateTime(), e.getCompletedDateTime(),
+                        e.getCompletedDateTime() != null))
+                .doOnNext(e -> todoRepository.evictCached(e.getId()))
+                .onErrorMap(ex -> {
+                    LOGGER.error(String.format("Todos update failed: %s", ex.getMessage()));
+                    return new TodoUpdateFailedException(ex.getMessage());
+                });
+    }
+
+    public Mono<Void> deleteById(UUID id) {
+        // The API's DELETE only accepts requests with a supported Content-Type
+        return todoApiWebClient.delete()
+                .uri("/{id}", id)
+                .header(HttpHeaders.CONTENT_TYPE, appConfig.getTodoApiMediaType().toString())
+                .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                .retrieve()
+                .onStatus(status -> status == HttpStatus.NOT_FOUND,
+                        response -> Mono.error(new TodoNotFoundException(String.format("Todo '%s' does not exist", id))))
+                .toBodilessEntity()
+                .doOnNext(e -> todoRepository.evictCached(id))
+                .then()
+                .onErrorMap(ex -> !(ex instanceof TodoNotFoundException), ex -> {
+                    LOGGER.error(String.format("Todo deletion failed: %s", ex.getMessage()));
+                    return new TodoDeleteFailedException(ex.getMessage());
+                });
+    }
+}
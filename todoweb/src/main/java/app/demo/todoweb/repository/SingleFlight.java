@@ -0,0 +1,108 @@
+package app.demo.todoweb.repository;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Coalesces concurrent identical loads: the first caller (the leader) loads, callers
+//arriving while the load is in flight wait for and share its result. A successful
+//result is also handed out for a short window after it completed (micro-cache).
+//Failures (errors included) are shared with the callers already waiting, but never
+//cached. Waiting callers give up after the max wait with a TimeoutException
+class SingleFlight<V> {
+
+    interface Loader<V> {
+        V load() throws Exception;
+    }
+
+    private final long windowNanos;
+    private final long maxWaitNanos;
+
+    private CompletableFuture<V> current = null;
+    private long completedAtNanos = 0;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong sharedInFlight = new AtomicLong();
+    private final AtomicLong sharedCompleted = new AtomicLong();
+
+    SingleFlight(long windowMillis, long maxWaitMillis) {
+        this.windowNanos = Math.max(0, windowMillis) * 1_000_000;
+        this.maxWaitNanos = Math.max(0, maxWaitMillis) * 1_000_000;
+    }
+
+    V get(Loader<V> loader) throws Exception {
+        CompletableFuture<V> future;
+        boolean leader = false;
+
+        synchronized (this) {
+            if (current != null && !current.isDone()) {
+                future = current;
+                sharedInFlight.incrementAndGet();
+            } else if (current != null && System.nanoTime() - completedAtNanos < windowNanos) {
+                future = current;
+                sharedCompleted.incrementAndGet();
+            } else {
+                future = new CompletableFuture<V>();
+                current = future;
+                leader = true;
+                loads.incrementAndGet();
+            }
+        }
+
+        if (leader) {
+            try {
+                V value = loader.load();
+                synchronized (this) {
+                    completedAtNanos = System.nanoTime();
+                }
+                future.complete(value);
+                return value;
+            } catch (Throwable ex) {
+                // Otherwise the future would never complete and every later caller
+                // would wait for it
+                synchronized (this) {
+                    if (current == future) {
+                        current = null;
+                    }
+                }
+                future.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+
+        try {
+            return future.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    // After a write: later callers must neither join a load started before the write
+    // nor get its result from the window
+    synchronized void invalidate() {
+        current = null;
+    }
+
+    long getLoads() {
+        return loads.get();
+    }
+
+    long getShared() {
+        return sharedInFlight.get() + sharedCompleted.get();
+    }
+
+    long getSharedInFlight() {
+        return sharedInFlight.get();
+    }
+
+    long getSharedCompleted() {
+        return sharedCompleted.get();
+    }
+}
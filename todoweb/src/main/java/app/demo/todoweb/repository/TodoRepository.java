@@ -1,10 +1,13 @@
 package app.demo.todoweb.repository;
 
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.UUID;
 
+import javax.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
@@ -25,6 +28,9 @@ import app.demo.todoweb.exception.TodoUpdateFailedException;
 import app.demo.todoweb.exception.TodosRetrievalFailedException;
 import app.demo.todoweb.utils.AppLogger;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import reactor.core.publisher.Mono;
 
 @Repository
@@ -34,26 +40,150 @@ public class TodoRepository {
     @Autowired
     private AppConfig appConfig;
 
-    public List<Todo> findAll(Sort by) throws TodosRetrievalFailedException {
+    // Shared client with a bounded connection pool, see AppConfig.todoApiWebClient(..)
+    @Autowired
+    private WebClient todoApiWebClient;
 
-        TodoList retValList = new TodoList();
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static final String LIST_READS_METRIC = "todoweb.todolist.reads";
+
+    private SingleFlight<TodoList> todoListFlight;
+
+    // Validators (ETags) of the last responses, re-used on 304 Not Modified. The list
+    // is kept without an ETag as well (the API sends none unless etag-enabled), as
+    // the last known list, see findAllLastKnown()
+    private volatile CachedResponse<TodoList> cachedTodoList = null;
+    // Bumped by every write; a list fetch only caches its result if no write has
+    // happened since it started, so it can not re-install the list of before the write
+    private long writeGeneration = 0;
+    private final Object cachedTodoListLock = new Object();
+    private final ValidatorCache<UUID, Todo> cachedTodos = new ValidatorCache<UUID, Todo>(1000);
+
+    @PostConstruct
+    void init() {
+        todoListFlight = new SingleFlight<TodoList>(appConfig.getTodoListMicroCacheMillis(),
+                appConfig.getTodoListSharedWaitMillis());
+
+        FunctionCounter.builder(LIST_READS_METRIC, todoListFlight, SingleFlight::getLoads)
+                .description("Todo list reads by how they were served")
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        FunctionCounter.builder(LIST_READS_METRIC, todoListFlight, SingleFlight::getSharedInFlight)
+                .description("Todo list reads by how they were served")
+                .tag("result", "shared_in_flight")
+                .register(meterRegistry);
+        FunctionCounter.builder(LIST_READS_METRIC, todoListFlight, SingleFlight::getSharedCompleted)
+                .description("Todo list reads by how they were served")
+                .tag("result", "shared_completed")
+                .register(meterRegistry);
+        Gauge.builder("todoweb.todolist.dedup.ratio", todoListFlight, flight -> {
+            double total = flight.getLoads() + flight.getShared();
+            return total == 0 ? 0 : flight.getShared() / total;
+        })
+                .description("Share of todo list reads served without an own API request (since start)")
+                .register(meterRegistry);
+    }
 
-        LOGGER.debug(String.format("Retrieving all TODOs synchronously using findAll(%s)", by)); // sort direction is
-                                                                                                 // ignored
+    // Concurrent page renders share one in-flight list fetch (and its result for
+    // app.demo.todoweb.todo-list-micro-cache-millis); every caller gets its own copy
+    public List<Todo> findAll(Sort by) throws TodosRetrievalFailedException {
 
+        LOGGER.debug("Retrieving all TODOs synchronously using findAll({})", by); // sort direction is
+                                                                                                 // ignored
         try {
+            var sharedList = todoListFlight.get(this::fetchAll);
+
+            var retValList = new TodoList();
+            for (var e : sharedList) {
+                retValList.add(copyOf(e));
+            }
+            return retValList;
+        } catch (TodosRetrievalFailedException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            LOGGER.error(String.format("Retrieving all TODOs failed: '%s'", ex.getMessage()), ex);
+            throw new TodosRetrievalFailedException(ex.getMessage());
+        }
+    }
 
-            String apiUri = appConfig.getTodoApiUri();
-            WebClient webClient = WebClient.create(apiUri);
+    private TodoList fetchAll() throws TodosRetrievalFailedException {
 
-            retValList = webClient.get()
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .retrieve()
-                    .bodyToMono(TodoList.class)
-                    .block();
+        TodoList retValList = new TodoList();
 
-            LOGGER.debug(String.format("Received back a list of TODOs (size %s) as a response:", retValList.size()),
-                    retValList);
+        try {
+
+            // The API returns the list in pages; follow the continuation tokens until
+            // the last page. The list ETag is derived from the API's collection version
+            // and is the same for all pages, so a 304 for the first page means that the
+            // whole cached list is still current
+            long generation = getWriteGeneration();
+            long fetchStartedAtMillis = System.currentTimeMillis();
+            var cachedList = cachedTodoList;
+            int pageSize = appConfig.getTodoApiPageSize();
+            String continuationToken = null;
+            String listETag = null;
+            boolean listChanged = false;
+            boolean notModified = false;
+            do {
+                final String after = continuationToken;
+                final String ifNoneMatch = after == null && cachedList != null ? cachedList.getETag() : null;
+                var todoListPageResponse = todoApiWebClient.get()
+                        .uri(uriBuilder -> {
+                            uriBuilder.queryParam("limit", pageSize);
+                            if (after != null) {
+                                uriBuilder.queryParam("after", after);
+                            }
+                            return uriBuilder.build();
+                        })
+                        .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                        .headers(headers -> {
+                            if (ifNoneMatch != null) {
+                                headers.setIfNoneMatch(ifNoneMatch);
+                            }
+                        })
+                        .retrieve()
+                        .toEntity(RepositoryTodoListPage.class)
+                        .block();
+
+                if (todoListPageResponse.getStatusCode() == HttpStatus.NOT_MODIFIED && ifNoneMatch != null) {
+                    notModified = true;
+                    break;
+                }
+
+                String eTag = todoListPageResponse.getHeaders().getETag();
+                if (after == null) {
+                    listETag = eTag;
+                } else if (listETag != null && !listETag.equals(eTag)) {
+                    // The list changed while paging; do not cache a mixed result
+                    listChanged = true;
+                }
+
+                var todoListPage = todoListPageResponse.getBody();
+                retValList.addAll(todoListPage.getTodoList());
+                continuationToken = todoListPage.getContinuationToken();
+            } while (continuationToken != null);
+
+            if (notModified) {
+                LOGGER.debug("TODO list has not been modified, using the cached list");
+                retValList = new TodoList();
+                for (var e : cachedList.getBody()) {
+                    retValList.add(copyOf(e));
+                }
+                cacheList(generation,
+                        new CachedResponse<TodoList>(cachedList.getETag(), cachedList.getBody(), fetchStartedAtMillis));
+            } else if (!listChanged) {
+                var listToCache = new TodoList();
+                for (var e : retValList) {
+                    listToCache.add(copyOf(e));
+                }
+                cacheList(generation, new CachedResponse<TodoList>(listETag, listToCache, fetchStartedAtMillis));
+            } else {
+                cacheList(generation, null);
+            }
+
+            LOGGER.debug("Received back a list of TODOs (size {}) as a response: {}", retValList.size(), retValList);
         } catch (Exception ex) {
             LOGGER.error(String.format("Retrieving all TODOs failed: '%s'", ex.getMessage()), ex);
             throw new TodosRetrievalFailedException(ex.getMessage());
@@ -66,20 +196,29 @@ public class TodoRepository {
 
         Todo retVal = null;
 
-        LOGGER.debug(String.format("Retrieving a TODO synchronously using findById(%s)", id));
+        LOGGER.debug("Retrieving a TODO synchronously using findById({})", id);
 
         try {
 
-            String apiUri = appConfig.getTodoApiUri("/" + id.toString());
-
-            WebClient webClient = WebClient.create(apiUri);
+            var cachedTodo = cachedTodos.get(id);
 
-            var findByIdResponse = webClient.get()
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            var findByIdResponse = todoApiWebClient.get()
+                    .uri("/{id}", id)
+                    .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                    .headers(headers -> {
+                        if (cachedTodo != null) {
+                            headers.setIfNoneMatch(cachedTodo.getETag());
+                        }
+                    })
                     .retrieve()
                     .toEntity(Todo.class)
                     .block();
 
+            if (findByIdResponse.getStatusCode() == HttpStatus.NOT_MODIFIED && cachedTodo != null) {
+                LOGGER.debug("TODO '{}' has not been modified, using the cached TODO", id);
+                return copyOf(cachedTodo.getBody());
+            }
+
             if (findByIdResponse.getStatusCode() == HttpStatus.NOT_FOUND) {
                 LOGGER.error(String.format("Todo findById(%s) API returned a http status %s ('%s') ", id,
                         findByIdResponse.getStatusCode().name(),
@@ -91,9 +230,12 @@ public class TodoRepository {
             if (retVal == null)
                 throw new TodoNotFoundException("Unable to retrieve the Todo or Todo does not exist.");
 
-            LOGGER.debug("Received back this TODO structure as a response...", retVal);
+            cachedTodos.put(id, findByIdResponse.getHeaders().getETag(), copyOf(retVal));
+
+            LOGGER.debug("Received back this TODO structure as a response: {}", retVal);
         } catch (WebClientResponseException ex) {
             if (ex.getStatusCode() == HttpStatus.NOT_FOUND) {
+                cachedTodos.remove(id);
                 throw new TodoNotFoundException("Todo not found.");
             }
             if (ex.getStatusCode() == HttpStatus.BAD_REQUEST) {
@@ -112,23 +254,23 @@ public class TodoRepository {
     public Todo insert(NewTodo newTodo) throws TodoCreationFailedException {
         Todo createdTodo = null;
         try {
-            LOGGER.debug("Create a new Todo synchronously using insert: ", newTodo);
+            LOGGER.debug("Create a new Todo synchronously using insert: {}", newTodo);
 
-            String apiUri = appConfig.getTodoApiUri();
-            WebClient webClient = WebClient.create(apiUri);
+            // The API assigns the id, only the text is sent
+            LOGGER.debug("Sending a POST request with a new TODO: {}", newTodo);
 
-            var todo = new RepositoryTodo(UUID.randomUUID(), newTodo.getTodoText(), null, null);
-
-            LOGGER.debug("Sending a POST request with a new TODO: ", todo);
-
-            createdTodo = webClient.post()
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                    .body(Mono.just(todo), Todo.class)
+            createdTodo = todoApiWebClient.post()
+                    .contentType(appConfig.getTodoApiMediaType())
+                    .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
+                    .body(Mono.just(newTodo), NewTodo.class)
                     .retrieve()
                     .bodyToMono(Todo.class)
                     .block();
 
-            LOGGER.debug("Received back a new TODO as a response:", createdTodo);
+            // The last known list lacks the new TODO; the next findAll(..) fetches it again
+            evictCachedList();
+
+            LOGGER.debug("Received back a new TODO as a response: {}", createdTodo);
         } catch (Exception ex) {
             LOGGER.error(String.format("Todo creation failed: %s", ex.getMessage()), ex);
             throw new TodoCreationFailedException(ex.getMessage());
@@ -139,19 +281,18 @@ public class TodoRepository {
     public Todo update(Todo modifiedTodo) throws TodoCreationFailedException, TodoNotFoundException {
         Todo updatedTodo = null;
         try {
-            LOGGER.debug(String.format("Save a modified Todo synchronously using update(%s)", modifiedTodo.getId()));
-
-            String apiUri = appConfig.getTodoApiUri("/" + modifiedTodo.getId().toString());
-
-            WebClient webClient = WebClient.create(apiUri);
+            LOGGER.debug("Save a modified Todo synchronously using update({})", modifiedTodo.getId());
 
             var todo = new RepositoryTodo(modifiedTodo.getId(), modifiedTodo.getTodoText(),
-                    modifiedTodo.getCreatedDateTime(), modifiedTodo.getCompletedDateTime());
+                    modifiedTodo.getCreatedDateTime(), modifiedTodo.getCompletedDateTime(),
+                    modifiedTodo.getCompleted());
 
-            LOGGER.debug("Sending a PUT request with a modified TODO: ", todo);
+            LOGGER.debug("Sending a PATCH request with a modified TODO: {}", todo);
 
-            ResponseEntity<Todo> updateTodoResponse = webClient.post()
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            ResponseEntity<Todo> updateTodoResponse = todoApiWebClient.patch()
+                    .uri("/{id}", modifiedTodo.getId())
+                    .contentType(appConfig.getTodoApiMediaType())
+                    .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
                     .body(Mono.just(todo), Todo.class)
                     .retrieve()
                     .toEntity(Todo.class)
@@ -165,7 +306,10 @@ public class TodoRepository {
             }
 
             updatedTodo = updateTodoResponse.getBody();
-            LOGGER.debug("Received back an updated TODO as a response:", updateTodoResponse.getBody());
+            if (updatedTodo != null) {
+                mergeIntoCachedList(List.of(updatedTodo));
+            }
+            LOGGER.debug("Received back an updated TODO as a response: {}", updateTodoResponse.getBody());
         } catch (Exception ex) {
             LOGGER.error(String.format("Todo update(%s) failed: %s", modifiedTodo.getId(), ex.getMessage()), ex);
             throw new TodoUpdateFailedException(ex.getMessage());
@@ -175,15 +319,14 @@ public class TodoRepository {
 
     public void deleteById(UUID id) throws TodoDeleteFailedException, TodoNotFoundException {
         try {
-            LOGGER.debug(String.format("Delete a Todo using deleteById('%s')", id));
+            LOGGER.debug("Delete a Todo using deleteById('{}')", id);
 
-            String apiUri = appConfig.getTodoApiUri("/" + id.toString());
-            WebClient webClient = WebClient.create(apiUri);
+            LOGGER.debug("Sending a DELETE request for Todo Id '{}' ", id);
 
-            LOGGER.debug(String.format("Sending a DELETE request for Todo Id '%s' ", id));
-
-            var deleteTodoResponse = webClient.delete()
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            var deleteTodoResponse = todoApiWebClient.delete()
+                    .uri("/{id}", id)
+                    .header(HttpHeaders.CONTENT_TYPE, appConfig.getTodoApiMediaType().toString())
+                    .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
                     .retrieve()
                     .toEntity(String.class)
                     .block();
@@ -195,7 +338,10 @@ public class TodoRepository {
                 throw new TodoNotFoundException(String.format("Todo '%s' does not exist", id));
             }
 
-            LOGGER.debug(String.format("Received back the following responce: '%s'", deleteTodoResponse));
+            evictCachedList();
+            cachedTodos.remove(id);
+
+            LOGGER.debug("Received back the following responce: '{}'", deleteTodoResponse);
         } catch (TodoNotFoundException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -207,23 +353,20 @@ public class TodoRepository {
     public List<Todo> updateAll(List<Todo> modifiedTodos) throws TodoNotFoundException, TodoUpdateFailedException {
         List<Todo> updatedTodos = new ArrayList<Todo>();
         try {
-            LOGGER.debug(String.format("Save modified Todos synchronously using updateAll(no of Todos: %s)",
-                    modifiedTodos.size()));
+            LOGGER.debug("Save modified Todos synchronously using updateAll(no of Todos: {})",
+                    modifiedTodos.size());
 
-            String apiUri = appConfig.getTodoApiUri();
-
-            WebClient webClient = WebClient.create(apiUri);
-
-            var modifiedRepositoryTodos = new ArrayList<RepositoryTodo>();
+            var modifiedRepositoryTodos = new RepositoryTodoList();
             for (var e : modifiedTodos) {
                 modifiedRepositoryTodos.add(new RepositoryTodo(e.getId(), e.getTodoText(), e.getCreatedDateTime(),
-                        e.getCompletedDateTime()));
+                        e.getCompletedDateTime(), e.getCompleted()));
             }
-            LOGGER.debug(String.format("Sending a PUT request with a list of modified TODOs (no of Todos: %s): ",
-                    modifiedTodos.size()));
+            LOGGER.debug("Sending a PATCH request with a list of modified TODOs (no of Todos: {}): ",
+                    modifiedTodos.size());
 
-            ResponseEntity<RepositoryTodoList> updateTodosResponse = webClient.post()
-                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            ResponseEntity<RepositoryTodoList> updateTodosResponse = todoApiWebClient.patch()
+                    .contentType(appConfig.getTodoApiMediaType())
+                    .accept(appConfig.getTodoApiMediaType(), MediaType.APPLICATION_JSON)
                     .body(Mono.just(modifiedRepositoryTodos), RepositoryTodoList.class)
                     .retrieve()
                     .toEntity(RepositoryTodoList.class)
@@ -241,7 +384,8 @@ public class TodoRepository {
                 updatedTodos.add(new Todo(e.getId(), e.getTodoText(), e.getCreatedDateTime(), e.getCompletedDateTime(),
                         e.getCompletedDateTime() != null));
             }
-            LOGGER.debug("Received back a list of updated TODOs as a response:", updateTodosResponse.getBody());
+            mergeIntoCachedList(updatedTodos);
+            LOGGER.debug("Received back a list of updated TODOs as a response: {}", updateTodosResponse.getBody());
         } catch (TodoNotFoundException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -255,15 +399,12 @@ public class TodoRepository {
 
         String retVal = "unknown";
 
-        LOGGER.debug(String.format("Retrieving an API Version synchronously using getApiVersion()"));
+        LOGGER.debug("Retrieving an API Version synchronously using getApiVersion()");
 
         try {
 
-            String apiUri = appConfig.getApiVersionUri();
-
-            WebClient webClient = WebClient.create(apiUri);
-
-            var getVersionResponse = webClient.get()
+            var getVersionResponse = todoApiWebClient.get()
+                    .uri(appConfig.getApiVersionUri())
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                     .retrieve()
                     .toEntity(String.class)
@@ -271,7 +412,7 @@ public class TodoRepository {
 
             retVal = getVersionResponse.getBody();
 
-            LOGGER.debug(String.format("Received back this version as a response: %s", retVal));
+            LOGGER.debug("Received back this version as a response: {}", retVal);
         } catch (Exception ex) {
             LOGGER.error(String.format("Retrieving the API version failed: %s", ex.getMessage()), ex);
             retVal = "unknown";
@@ -281,6 +422,88 @@ public class TodoRepository {
 
         return retVal;
     }
+
+    // The list returned by the last findAll(..) with the TODOs written since merged
+    // in, or null if there is none (or a TODO has been added or deleted since, or the
+    // list is older than app.demo.todoweb.todo-list-last-known-max-age-millis). Used
+    // to render the list after an update without fetching it again
+    public List<Todo> findAllLastKnown() {
+        var cachedList = cachedTodoList;
+        if (cachedList == null || System.currentTimeMillis()
+                - cachedList.getStoredAtMillis() > appConfig.getTodoListLastKnownMaxAgeMillis()) {
+            return null;
+        }
+        var retVal = new TodoList();
+        for (var e : cachedList.getBody()) {
+            retVal.add(copyOf(e));
+        }
+        return retVal;
+    }
+
+    // The cached list keeps its ETag: the write has changed the API's collection
+    // version, so the ETag can not match any more and the next findAll(..) still
+    // gets a fresh list from the API. The merged list keeps the age of the fetched one
+    private void mergeIntoCachedList(List<Todo> updatedTodos) {
+        todoListFlight.invalidate();
+        for (var e : updatedTodos) {
+            cachedTodos.remove(e.getId());
+        }
+        var updatedTodosById = new HashMap<UUID, Todo>();
+        for (var e : updatedTodos) {
+            updatedTodosById.put(e.getId(), e);
+        }
+        synchronized (cachedTodoListLock) {
+            writeGeneration++;
+            var cachedList = cachedTodoList;
+            if (cachedList == null) {
+                return;
+            }
+            var mergedList = new TodoList();
+            for (var e : cachedList.getBody()) {
+                var updatedTodo = updatedTodosById.get(e.getId());
+                mergedList.add(copyOf(updatedTodo != null ? updatedTodo : e));
+            }
+            cachedTodoList = new CachedResponse<TodoList>(cachedList.getETag(), mergedList,
+                    cachedList.getStoredAtMillis());
+        }
+    }
+
+    // Called by ReactiveTodoRepository after its writes, which bypass this class
+    void evictCached(UUID id) {
+        evictCachedList();
+        if (id != null) {
+            cachedTodos.remove(id);
+        }
+    }
+
+    private void evictCachedList() {
+        synchronized (cachedTodoListLock) {
+            writeGeneration++;
+            cachedTodoList = null;
+        }
+        todoListFlight.invalidate();
+    }
+
+    private long getWriteGeneration() {
+        synchronized (cachedTodoListLock) {
+            return writeGeneration;
+        }
+    }
+
+    // A null list evicts the cached one, unless a write has happened in between
+    private void cacheList(long generation, CachedResponse<TodoList> list) {
+        synchronized (cachedTodoListLock) {
+            if (writeGeneration == generation) {
+                cachedTodoList = list;
+            }
+        }
+    }
+
+    // Cached TODOs are never handed out, callers (e.g. updateTodo) modify them
+    private static Todo copyOf(Todo todo) {
+        return new Todo(todo.getId(), todo.getTodoText(), todo.getCreatedDateTime(), todo.getCompletedDateTime(),
+                todo.getCompleted());
+    }
 }
 
 class RepositoryTodo {
@@ -289,15 +512,23 @@ class RepositoryTodo {
 
     private String todoText;
 
-    private Date createdDateTime;
+    private Instant createdDateTime;
 
-    private Date completedDateTime;
+    private Instant completedDateTime;
+
+    // The API's PATCH todos/ completes (or re-opens) a TODO based on this flag
+    private boolean completed;
+
+    public RepositoryTodo() {
+    }
 
-    public RepositoryTodo(UUID id, String todoText, Date createdDateTime, Date completedDateTime) {
+    public RepositoryTodo(UUID id, String todoText, Instant createdDateTime, Instant completedDateTime,
+            boolean completed) {
         this.id = id;
         this.todoText = todoText;
         this.createdDateTime = createdDateTime;
         this.completedDateTime = completedDateTime;
+        this.completed = completed;
     }
 
     public UUID getId() {
@@ -316,21 +547,29 @@ class RepositoryTodo {
         this.todoText = todoText;
     }
 
-    public Date getCreatedDateTime() {
+    public Instant getCreatedDateTime() {
         return createdDateTime;
     }
 
-    public void setCreatedDateTime(Date createdDateTime) {
+    public void setCreatedDateTime(Instant createdDateTime) {
         this.createdDateTime = createdDateTime;
     }
 
-    public Date getCompletedDateTime() {
+    public Instant getCompletedDateTime() {
         return completedDateTime;
     }
 
-    public void setCompletedDateTime(Date completedDateTime) {
+    public void setCompletedDateTime(Instant completedDateTime) {
         this.completedDateTime = completedDateTime;
     }
+
+    public boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
 }
 
 class RepositoryTodoList extends ArrayList<RepositoryTodo> {
@@ -339,4 +578,27 @@ class RepositoryTodoList extends ArrayList<RepositoryTodo> {
 
 class TodoList extends ArrayList<Todo> {
 
-}
\ No newline at end of file
+}
+
+class RepositoryTodoListPage {
+
+    private TodoList todoList = new TodoList();
+
+    private String continuationToken;
+
+    public TodoList getTodoList() {
+        return todoList;
+    }
+
+    public void setTodoList(TodoList todoList) {
+        this.todoList = todoList;
+    }
+
+    public String getContinuationToken() {
+        return continuationToken;
+    }
+
+    public void setContinuationToken(String continuationToken) {
+        this.continuationToken = continuationToken;
+    }
+}
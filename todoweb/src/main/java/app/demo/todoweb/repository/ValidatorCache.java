@@ -0,0 +1,67 @@
+package app.demo.todoweb.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//Small LRU cache of API responses together with the ETag they were served with;
+//used to send If-None-Match and to re-use the cached body on a 304 Not Modified
+class ValidatorCache<K, V> {
+
+    private final Map<K, CachedResponse<V>> entries;
+
+    ValidatorCache(int maxSize) {
+        entries = new LinkedHashMap<K, CachedResponse<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedResponse<V>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    synchronized CachedResponse<V> get(K key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(K key, String eTag, V body) {
+        if (eTag == null || body == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new CachedResponse<V>(eTag, body));
+    }
+
+    synchronized void remove(K key) {
+        entries.remove(key);
+    }
+}
+
+class CachedResponse<V> {
+
+    private final String eTag;
+
+    private final V body;
+
+    private final long storedAtMillis;
+
+    CachedResponse(String eTag, V body) {
+        this(eTag, body, System.currentTimeMillis());
+    }
+
+    CachedResponse(String eTag, V body, long storedAtMillis) {
+        this.eTag = eTag;
+        this.body = body;
+        this.storedAtMillis = storedAtMillis;
+    }
+
+    String getETag() {
+        return eTag;
+    }
+
+    V getBody() {
+        return body;
+    }
+
+    long getStoredAtMillis() {
+        return storedAtMillis;
+    }
+}
@@ -0,0 +1,175 @@
+package app.demo.todoweb.service;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.AppConfig;
+import app.demo.todoweb.utils.AppLogger;
+
+//Calls the API's version endpoint (no database access) on a background thread and
+//keeps the outcome, so web health probes never wait for the API. Consecutive
+//failures open a circuit; while it is open the API is not called at all until the
+//open period is over, then a single trial call (half open) decides whether the
+//circuit closes again or stays open for another period
+@Component
+public class ApiHealthMonitor {
+
+    public static final AppLogger LOGGER = new AppLogger(ApiHealthMonitor.class);
+
+    public enum CircuitState {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final AppConfig appConfig;
+    private final Duration timeout;
+    private final long ttlMillis;
+    private final long slowResponseMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private final WebClient todoApiWebClient;
+
+    private ScheduledExecutorService scheduler;
+
+    private volatile Result lastResult = null;
+    private volatile CircuitState circuitState = CircuitState.CLOSED;
+    private volatile long lastRunMillis = 0;
+    private int consecutiveFailures = 0;
+    private long openedAtMillis = 0;
+
+    @Autowired
+    public ApiHealthMonitor(AppConfig appConfig, WebClient todoApiWebClient) {
+        this.appConfig = appConfig;
+        this.todoApiWebClient = todoApiWebClient;
+        this.timeout = Duration.ofMillis(appConfig.getApiHealthCheckTimeoutMillis());
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(appConfig.getApiHealthCheckTtlSeconds());
+        this.slowResponseMillis = appConfig.getApiSlowResponseMillis();
+        this.failureThreshold = appConfig.getApiCircuitFailureThreshold();
+        this.openMillis = TimeUnit.SECONDS.toMillis(appConfig.getApiCircuitOpenSeconds());
+    }
+
+    @PostConstruct
+    void start() {
+        LOGGER.debug("Starting the API health check of '{}' (every {} seconds)",
+                appConfig.getTodoApiUri(), appConfig.getApiHealthCheckIntervalSeconds());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "api-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, appConfig.getApiHealthCheckIntervalSeconds(),
+                TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    synchronized void check() {
+        long now = System.currentTimeMillis();
+        if (circuitState == CircuitState.OPEN) {
+            if (now - openedAtMillis < openMillis) {
+                lastRunMillis = now;
+                return;
+            }
+            circuitState = CircuitState.HALF_OPEN;
+        }
+
+        long start = System.nanoTime();
+        String error = null;
+        try {
+            // Shares the connection pool with the regular calls; waiting for a
+            // connection from a saturated pool shows up as a slow API
+            todoApiWebClient.get()
+                    .uri(appConfig.getApiVersionUri())
+                    .retrieve()
+                    .toBodilessEntity()
+                    .timeout(timeout)
+                    .block();
+        } catch (Exception ex) {
+            error = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        lastResult = new Result(error == null, System.currentTimeMillis(), durationMillis, error);
+        lastRunMillis = lastResult.getCheckedAtMillis();
+
+        if (error == null) {
+            if (circuitState != CircuitState.CLOSED) {
+                LOGGER.info(String.format("API reachable again, closing the circuit (%s ms)", durationMillis));
+            }
+            consecutiveFailures = 0;
+            circuitState = CircuitState.CLOSED;
+            return;
+        }
+
+        consecutiveFailures++;
+        LOGGER.error(String.format("API health check failed %s time(s) in a row (%s)", consecutiveFailures, error));
+        if (circuitState == CircuitState.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            circuitState = CircuitState.OPEN;
+            openedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    public CircuitState getCircuitState() {
+        return circuitState;
+    }
+
+    // Null until the first check has finished
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    // The background check has not run for longer than the TTL (e.g. its thread died);
+    // the last result says nothing about the API any more. Skipping the API call while
+    // the circuit is open counts as a run
+    public boolean isStale() {
+        return System.currentTimeMillis() - lastRunMillis > ttlMillis;
+    }
+
+    public boolean isSlow(Result result) {
+        return result != null && result.getDurationMillis() > slowResponseMillis;
+    }
+
+    public static class Result {
+
+        private final boolean up;
+        private final long checkedAtMillis;
+        private final long durationMillis;
+        private final String error;
+
+        Result(boolean up, long checkedAtMillis, long durationMillis, String error) {
+            this.up = up;
+            this.checkedAtMillis = checkedAtMillis;
+            this.durationMillis = durationMillis;
+            this.error = error;
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+
+        public long getCheckedAtMillis() {
+            return checkedAtMillis;
+        }
+
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
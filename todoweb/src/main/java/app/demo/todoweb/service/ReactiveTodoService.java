@@ -0,0 +1,24 @@
+package app.demo.todoweb.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.stereotype.Service;
+
+import app.demo.todoweb.dto.Todo;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+//Non-blocking variant of TodoService; failures are signalled through the returned
+//Mono/Flux using the same exceptions TodoService throws
+@Service
+public interface ReactiveTodoService {
+
+    public Flux<Todo> getTodos();
+    public Mono<Todo> getTodo(UUID id);
+    public Mono<Todo> createTodo(String todoText);
+    public Mono<Todo> updateTodo(Todo todo);
+    public Flux<Todo> updateTodos(List<Todo> todos);
+    public Mono<Void> deleteTodo(UUID id);
+}
@@ -0,0 +1,76 @@
+package app.demo.todoweb.service;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import app.demo.todoweb.dto.NewTodo;
+import app.demo.todoweb.dto.Todo;
+import app.demo.todoweb.exception.NewTodoIsEmptyException;
+import app.demo.todoweb.exception.TodoIdCannotBeEmptyException;
+import app.demo.todoweb.exception.TodoIsEmptyException;
+import app.demo.todoweb.repository.ReactiveTodoRepository;
+import app.demo.todoweb.utils.AppLogger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+public class ReactiveTodoServiceImpl implements ReactiveTodoService {
+
+    @Autowired
+    private ReactiveTodoRepository repository;
+
+    public static final AppLogger LOGGER = new AppLogger(ReactiveTodoServiceImpl.class);
+
+    public Flux<Todo> getTodos() {
+        LOGGER.debug("Retrieving all TODOs asynchronously using getTodos()");
+
+        return repository.findAll();
+    }
+
+    public Mono<Todo> getTodo(UUID id) {
+        LOGGER.debug("Retrieving a TODO asynchronously using getTodo('{}')", id);
+
+        return repository.findById(id);
+    }
+
+    public Mono<Todo> createTodo(String todoText) {
+        if (todoText == null || todoText.isBlank()) {
+            return Mono.error(new NewTodoIsEmptyException());
+        }
+
+        LOGGER.debug("Create a new Todo asynchronously using createTodo('{}')", todoText);
+
+        return repository.insert(new NewTodo(todoText))
+                .doOnNext(e -> LOGGER.debug("Created a new Todo with Id '{}'", e.getId()));
+    }
+
+    public Mono<Todo> updateTodo(Todo todo) {
+        if (todo == null || todo.getTodoText() == null || todo.getTodoText().isBlank()) {
+            return Mono.error(new TodoIsEmptyException(todo != null ? todo.getId() : null, null));
+        }
+
+        LOGGER.debug("Updating an existing Todo '{}' asynchronously using updateTodo(..)", todo.getId());
+
+        return repository.update(todo);
+    }
+
+    public Flux<Todo> updateTodos(List<Todo> todos) {
+        LOGGER.debug("Updating TODOs asynchronously using updateTodos (length: '{}')", todos.size());
+
+        return repository.updateAll(todos);
+    }
+
+    public Mono<Void> deleteTodo(UUID id) {
+        if (id == null) {
+            return Mono.error(new TodoIdCannotBeEmptyException("Todo id is empty"));
+        }
+
+        LOGGER.debug("Deleting a TODO asynchronously using deleteTodo('{}')", id);
+
+        return repository.deleteById(id);
+    }
+}
@@ -18,6 +18,7 @@ import app.demo.todoweb.exception.TodosRetrievalFailedException;
 public interface TodoService {
 
     public List<Todo> getTodos() throws TodosRetrievalFailedException;
+    public List<Todo> getLastKnownTodos();
     public Todo getTodo(UUID id) throws TodoNotFoundException, TodosRetrievalFailedException;
     public Todo createTodo(String todoText) throws TodoCreationFailedException, NewTodoIsEmptyException;
     public Todo updateTodo(Todo todo) throws TodoIsEmptyException, TodoUpdateFailedException, TodoNotFoundException;
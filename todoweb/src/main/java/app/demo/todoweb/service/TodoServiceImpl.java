@@ -49,17 +49,23 @@ public class TodoServiceImpl implements TodoService {
             throw new TodosRetrievalFailedException(ex.getMessage());
         }
 
-        LOGGER.debug(String.format("Retrieved all TODOs synchronously using getTodos(), no of TODOs: %s", retVal.size()));
+        LOGGER.debug("Retrieved all TODOs synchronously using getTodos(), no of TODOs: {}", retVal.size());
 
         return retVal;
     }
 
+    // The last retrieved list with the TODOs updated since merged in; null if it is
+    // not known (e.g. a TODO has been created or deleted since)
+    public List<Todo> getLastKnownTodos() {
+        return repository.findAllLastKnown();
+    }
+
     public Todo getTodo(UUID id)
             throws TodoNotFoundException, TodosRetrievalFailedException {
 
         Todo retVal = null;
 
-        LOGGER.debug(String.format("Retrieving a TODO synchronously using getTodo('%s')", id));
+        LOGGER.debug("Retrieving a TODO synchronously using getTodo('{}')", id);
 
         try {
             var retrievedTodoEntity = repository.findById(id);
@@ -80,7 +86,7 @@ public class TodoServiceImpl implements TodoService {
             throw new TodosRetrievalFailedException(ex.getMessage());
         }
         
-        LOGGER.debug(String.format("Retrieved a TODO synchronously using getTodo('%s')", id));
+        LOGGER.debug("Retrieved a TODO synchronously using getTodo('{}')", id);
 
         return retVal;
     }
@@ -95,7 +101,7 @@ public class TodoServiceImpl implements TodoService {
         }
 
         try {
-            LOGGER.debug(String.format("Create a new Todo synchronously using createTodo('%s')", todoText));
+            LOGGER.debug("Create a new Todo synchronously using createTodo('{}')", todoText);
 
             var newTodoEntoty = new NewTodo(todoText);
             
@@ -105,7 +111,7 @@ public class TodoServiceImpl implements TodoService {
                     todoEntitySaved.getCreatedDateTime(), todoEntitySaved.getCompletedDateTime(),
                     todoEntitySaved.getCompletedDateTime() != null);
 
-            LOGGER.debug(String.format("Created a new Todo with Id '%s'", todo.getId()));
+            LOGGER.debug("Created a new Todo with Id '{}'", todo.getId());
         } catch (NewTodoIsEmptyException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -123,7 +129,7 @@ public class TodoServiceImpl implements TodoService {
             throw new TodoIsEmptyException(todo.getId(), null);
 
         try {
-            LOGGER.debug(String.format("Updating an existing Todo '%s' synchronously using updateTodo(..)", todo.getId()));
+            LOGGER.debug("Updating an existing Todo '{}' synchronously using updateTodo(..)", todo.getId());
 
             var existingTodo = repository.findById(todo.getId());
 
@@ -149,7 +155,7 @@ public class TodoServiceImpl implements TodoService {
             throw new TodoUpdateFailedException(ex.getMessage());
         }
 
-        LOGGER.debug(String.format("Updated an existing Todo '%s' synchronously using updateTodo(..)", todo.getId()));
+        LOGGER.debug("Updated an existing Todo '{}' synchronously using updateTodo(..)", todo.getId());
 
         return retVal;
     }
@@ -158,7 +164,7 @@ public class TodoServiceImpl implements TodoService {
     public void deleteTodo(UUID id)
             throws TodoNotFoundException, TodoDeleteFailedException, TodoIdCannotBeEmptyException {
 
-        LOGGER.debug(String.format("Deleting a TODO synchronously using deleteTodo('%s')", id));
+        LOGGER.debug("Deleting a TODO synchronously using deleteTodo('{}')", id);
 
         try {
             repository.deleteById(id);
@@ -171,7 +177,7 @@ public class TodoServiceImpl implements TodoService {
             LOGGER.error(String.format("Retrieving the TODO '%s' failed (%s)", id, ex.getMessage()), ex);
             throw new TodosRetrievalFailedException(ex.getMessage());
         }
-        LOGGER.debug(String.format("Deleted a TODO synchronously using deleteTodo('%s')", id));
+        LOGGER.debug("Deleted a TODO synchronously using deleteTodo('{}')", id);
     }
 
     @Override
@@ -180,21 +186,21 @@ public class TodoServiceImpl implements TodoService {
 
         List<Todo> retVal;
 
-        LOGGER.debug(String.format("Updating TODOs synchronously using updateTodos (length: '%s')", todos.size()));
+        LOGGER.debug("Updating TODOs synchronously using updateTodos (length: '{}')", todos.size());
 
         try {
             retVal = repository.updateAll(todos);
         }
         catch (TodoUpdateFailedException ex) {
-            LOGGER.debug(String.format("An error occurred while updating one or more TODOs: %s ", ex.getMessage()), ex);
+            LOGGER.debug("An error occurred while updating one or more TODOs: {}", ex.getMessage(), ex);
             throw ex;
         }
         catch (TodoNotFoundException ex) {
-            LOGGER.debug(String.format("An error occurred while updating one or more TODOs; one or more TODOs on the list do not exist: %s", ex.getMessage()), ex);
+            LOGGER.debug("An error occurred while updating one or more TODOs; one or more TODOs on the list do not exist: {}", ex.getMessage(), ex);
             throw ex;
         }
         catch (Exception ex) {
-            LOGGER.debug(String.format("An error occurred while updating one or more TODOs (generic): %s", ex.getMessage()), ex);
+            LOGGER.debug("An error occurred while updating one or more TODOs (generic): {}", ex.getMessage(), ex);
             throw new TodoUpdateFailedException(ex.getMessage());
         }
         return retVal;
@@ -202,7 +208,7 @@ public class TodoServiceImpl implements TodoService {
 
     @Override
     public String getApiVersion() {
-        LOGGER.debug(String.format("Retrieving API version synchronously using getApiVersion()"));
+        LOGGER.debug("Retrieving API version synchronously using getApiVersion()");
 
         String retVal = "unknown";
 
@@ -215,7 +221,7 @@ public class TodoServiceImpl implements TodoService {
         if (retVal == null) {
             retVal = "unknown";
         }
-        LOGGER.debug(String.format("Retrievend an API version synchronously using getApiVersion(): %s", retVal));
+        LOGGER.debug("Retrievend an API version synchronously using getApiVersion(): {}", retVal);
         return retVal;
     }
 }
@@ -38,16 +38,16 @@ public class AppEnvironmentListener implements EnvironmentPostProcessor {
             }
 
             if (propertySource == null) {
-                LOGGER.debug(String.format("Skipping PropertySource as it is not of type '%s'",
-                        MapPropertySource.class.getName()));
+                LOGGER.debug("Skipping PropertySource as it is not of type '{}'",
+                        MapPropertySource.class.getName());
                 continue;
             }
 
             var propertyNames = propertySource.getPropertyNames();
             if (propertyNames.length < 1) {
-                LOGGER.debug(String.format(
-                        "Skipping property source name '%s', type '%s', as the getNames() returned nothing.",
-                        propertySource.getName(), propertySource.getClass().getName()));
+                LOGGER.debug(
+                        "Skipping property source name '{}', type '{}', as the getNames() returned nothing.",
+                        propertySource.getName(), propertySource.getClass().getName());
                 continue;
             }
 
@@ -63,8 +63,8 @@ public class AppEnvironmentListener implements EnvironmentPostProcessor {
                         String transformedPropertyValue = replaceEnvironmentVars(propertyValue);
                         if (!propertyValue.equals(transformedPropertyValue)) {
                             propertyTransformed = true;
-                            LOGGER.debug(String.format("Property transformation 1: '%s': '%s' -> '%s'",
-                                    propertyNames[i], origPropertyValue, transformedPropertyValue));
+                            LOGGER.debug("Property transformation 1: '{}': '{}' -> '{}'",
+                                    propertyNames[i], origPropertyValue, transformedPropertyValue);
                             propertyValue = transformedPropertyValue;
                         }
 
@@ -74,8 +74,8 @@ public class AppEnvironmentListener implements EnvironmentPostProcessor {
 
                             if (!transformedPropertyValue.equals(secondTransformedPropertyValue)) {
                                 propertyTransformed = true;
-                                LOGGER.debug(String.format("Property transformation 2: '%s': '%s' -> '%s'",
-                                        propertyNames[i], transformedPropertyValue, secondTransformedPropertyValue));
+                                LOGGER.debug("Property transformation 2: '{}': '{}' -> '{}'",
+                                        propertyNames[i], transformedPropertyValue, secondTransformedPropertyValue);
                                 propertyValue = secondTransformedPropertyValue;
                             }
                         }
@@ -90,7 +90,7 @@ public class AppEnvironmentListener implements EnvironmentPostProcessor {
             if (propertyTransformed) {
                 var target = new MapPropertySource(propertySource.getName(), newProperties);
                 propertySources.replace(propertySource.getName(), target);
-                LOGGER.debug(String.format("Property source '%s' has been transformed", propertySource.getName()));
+                LOGGER.debug("Property source '{}' has been transformed", propertySource.getName());
             }
         }
     }
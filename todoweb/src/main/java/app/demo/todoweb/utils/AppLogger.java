@@ -1,16 +1,22 @@
 package app.demo.todoweb.utils;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.MessageFormatter;
+
+import ch.qos.logback.classic.Level;
 
 import app.demo.todoweb.TodoApplication;
 
 //Using a SLf4J Logger only after the app has been inited as there were some weird issues,
 //while logging in the property transformation part (AppEnvironmentListener)
+//Once AppConfig has installed the AsyncLogDispatcher, events are handed to it and
+//written on its thread; until then (and in tests) they are logged synchronously
 public class AppLogger {
+    private static volatile AsyncLogDispatcher dispatcher = null;
+
     private final Class<?> clazz;
     private Logger logger = null;
 
@@ -18,36 +24,90 @@ public class AppLogger {
         this.clazz = clazz;
     }
 
+    public static void setDispatcher(AsyncLogDispatcher asyncLogDispatcher) {
+        dispatcher = asyncLogDispatcher;
+    }
+
+    // Called by a dispatcher that is being stopped; its queue is no longer written
+    public static void removeDispatcher(AsyncLogDispatcher asyncLogDispatcher) {
+        if (dispatcher == asyncLogDispatcher) {
+            dispatcher = null;
+        }
+    }
+
     public void debug(String message) {
         if (!TodoApplication.isInitialized()) {
             System.out.println(message);
             return;
         }
-        if (logger == null) {
-            logger = LoggerFactory.getLogger(clazz);
+        if (!isDebugEnabled()) {
+            return;
         }
-        logger.debug(message);
+        log(Level.DEBUG, message, null, null);
     }
 
-    public void debug(String message, Object object) {
+    // The overloads below check the level before formatting: while debug is off
+    // a call neither formats the message nor calls toString() on the arguments.
+    // Messages use SLF4J '{}' placeholders. The one to three argument forms do not
+    // allocate a varargs array; primitive arguments are still boxed by the caller
+    public boolean isDebugEnabled() {
         if (!TodoApplication.isInitialized()) {
-            System.out.println(message);
-            if (object == null) {
-                System.out.println("null");
-            } else {
-                System.out.println(object.toString());
-            }
+            return true;
+        }
+        return getLogger().isDebugEnabled();
+    }
+
+    public void debug(String format, Object arg) {
+        if (!TodoApplication.isInitialized()) {
+            System.out.println(MessageFormatter.format(format, arg).getMessage());
             return;
         }
-        if (logger == null) {
-            logger = LoggerFactory.getLogger(clazz);
+        if (!isDebugEnabled()) {
+            return;
         }
-        logger.debug(message);
-        if (object == null) {
-            logger.debug("null");
-        } else {
-            logger.debug(object.toString());
+        log(Level.DEBUG, format, new Object[] { arg }, null);
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        if (!TodoApplication.isInitialized()) {
+            System.out.println(MessageFormatter.format(format, arg1, arg2).getMessage());
+            return;
         }
+        if (!isDebugEnabled()) {
+            return;
+        }
+        log(Level.DEBUG, format, new Object[] { arg1, arg2 }, null);
+    }
+
+    public void debug(String format, Object arg1, Object arg2, Object arg3) {
+        if (!TodoApplication.isInitialized()) {
+            System.out.println(MessageFormatter.arrayFormat(format, new Object[] { arg1, arg2, arg3 }).getMessage());
+            return;
+        }
+        if (!isDebugEnabled()) {
+            return;
+        }
+        log(Level.DEBUG, format, new Object[] { arg1, arg2, arg3 }, null);
+    }
+
+    public void debug(String format, Object... args) {
+        if (!TodoApplication.isInitialized()) {
+            System.out.println(MessageFormatter.arrayFormat(format, args).getMessage());
+            return;
+        }
+        if (!isDebugEnabled()) {
+            return;
+        }
+        log(Level.DEBUG, format, args, null);
+    }
+
+    // For messages that are expensive to build; a lambda capturing local variables
+    // is itself an allocation, the forms above are cheaper where they fit
+    public void debug(Supplier<String> messageSupplier) {
+        if (!isDebugEnabled()) {
+            return;
+        }
+        debug(messageSupplier.get());
     }
 
     public void error(String message) {
@@ -55,26 +115,23 @@ public class AppLogger {
             System.err.println(message);
             return;
         }
-        if (logger == null) {
-            logger = LoggerFactory.getLogger(clazz);
+        if (!getLogger().isErrorEnabled()) {
+            return;
         }
-        logger.error(message);
+        log(Level.ERROR, message, null, null);
     }
 
+    // The stack trace is part of the event (the stackTrace field of the JSON log)
     public void error(String message, Exception ex) {
         if (!TodoApplication.isInitialized()) {
             System.err.println(message);
             ex.printStackTrace();
             return;
         }
-        if (logger == null) {
-            logger = LoggerFactory.getLogger(clazz);
+        if (!getLogger().isErrorEnabled()) {
+            return;
         }
-
-        logger.error(message);
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-        ex.printStackTrace(pw);
+        log(Level.ERROR, message, null, ex);
     }
 
     public void info(String message) {
@@ -82,9 +139,36 @@ public class AppLogger {
             System.out.println(message);
             return;
         }
+        if (!getLogger().isInfoEnabled()) {
+            return;
+        }
+        log(Level.INFO, message, null, null);
+    }
+
+    private Logger getLogger() {
         if (logger == null) {
             logger = LoggerFactory.getLogger(clazz);
         }
-        logger.info(message);
+        return logger;
+    }
+
+    // The level has been checked by the caller
+    private void log(Level level, String format, Object[] args, Throwable throwable) {
+        var asyncLogDispatcher = dispatcher;
+        var slf4jLogger = getLogger();
+        if (asyncLogDispatcher != null && slf4jLogger instanceof ch.qos.logback.classic.Logger) {
+            asyncLogDispatcher.dispatch((ch.qos.logback.classic.Logger) slf4jLogger, level, format, args, throwable);
+            return;
+        }
+
+        var message = MessageFormatter.arrayFormat(format, args);
+        var messageThrowable = throwable != null ? throwable : message.getThrowable();
+        if (level == Level.ERROR) {
+            slf4jLogger.error(message.getMessage(), messageThrowable);
+        } else if (level == Level.INFO) {
+            slf4jLogger.info(message.getMessage(), messageThrowable);
+        } else {
+            slf4jLogger.debug(message.getMessage(), messageThrowable);
+        }
     }
 }
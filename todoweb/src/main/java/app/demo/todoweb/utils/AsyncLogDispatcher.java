@@ -0,0 +1,182 @@
+package app.demo.todoweb.utils;
+
+import java.util.ArrayList;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+//Writes the events of AppLogger on a background thread. A request thread checks the
+//level, formats the message and enqueues the event; rendering the stack trace and
+//running the Logback appenders (e.g. the JSON console, see logback-spring.xml)
+//happen on the writer thread. The queue is bounded: once it is 80% full DEBUG and
+//INFO events are dropped, and a full queue is handled by the drop policy, so a
+//burst of log events can not stall request threads
+public class AsyncLogDispatcher implements MeterBinder, DisposableBean {
+
+    public enum DropPolicy {
+        // The event being logged is dropped
+        DROP_NEWEST,
+        // The oldest queued event makes room for the event being logged
+        DROP_OLDEST,
+        // The logging thread waits up to the block timeout, then drops the event
+        BLOCK;
+
+        public static DropPolicy parse(String value) {
+            if (value == null || value.isBlank()) {
+                return DROP_NEWEST;
+            }
+            return DropPolicy.valueOf(value.trim().toUpperCase().replace('-', '_'));
+        }
+    }
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final BlockingQueue<Entry> queue;
+    private final int capacity;
+    private final int discardingThreshold;
+    private final DropPolicy dropPolicy;
+    private final long blockTimeoutMillis;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean stopped = false;
+
+    public AsyncLogDispatcher(int capacity, DropPolicy dropPolicy, long blockTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<Entry>(capacity);
+        this.capacity = capacity;
+        this.discardingThreshold = capacity / 5;
+        this.dropPolicy = dropPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+
+        this.writer = new Thread(this::write, "app-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Called once the level is enabled. The message is formatted here, as the
+    // arguments (e.g. a list being filled) may change once the caller moves on
+    public void dispatch(Logger logger, Level level, String format, Object[] args, Throwable throwable) {
+        if (level.toInt() < Level.WARN_INT && queue.remainingCapacity() < discardingThreshold) {
+            dropped.increment();
+            return;
+        }
+
+        var event = new LoggingEvent(AppLogger.class.getName(), logger, level, format, throwable, args);
+        // Read on the logging thread, as the writer thread has its own
+        event.getThreadName();
+        event.getMDCPropertyMap();
+        if (args != null) {
+            // Cached by the event
+            event.getFormattedMessage();
+        }
+
+        var entry = new Entry(logger, event);
+        switch (dropPolicy) {
+            case DROP_OLDEST:
+                while (!queue.offer(entry)) {
+                    if (queue.poll() != null) {
+                        dropped.increment();
+                    }
+                }
+                break;
+            case BLOCK:
+                try {
+                    if (!queue.offer(entry, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        dropped.increment();
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    dropped.increment();
+                }
+                break;
+            default:
+                if (!queue.offer(entry)) {
+                    dropped.increment();
+                }
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todoweb.log.queue.depth", this, AsyncLogDispatcher::getQueueDepth)
+                .description("Log events waiting for the writer thread")
+                .register(registry);
+        Gauge.builder("todoweb.log.queue.capacity", this, AsyncLogDispatcher::getCapacity)
+                .register(registry);
+        FunctionCounter.builder("todoweb.log.events.dropped", this, AsyncLogDispatcher::getDropped)
+                .description("Log events dropped because the queue was (nearly) full")
+                .register(registry);
+    }
+
+    // Writes what is still queued, so the last events before a shutdown are not lost
+    @Override
+    public void destroy() throws InterruptedException {
+        AppLogger.removeDispatcher(this);
+        stopped = true;
+        writer.join(STOP_TIMEOUT_MILLIS);
+    }
+
+    private void write() {
+        var batch = new ArrayList<Entry>(BATCH_SIZE);
+        while (!stopped || !queue.isEmpty()) {
+            try {
+                var entry = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (entry == null) {
+                    continue;
+                }
+                batch.add(entry);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                for (var e : batch) {
+                    append(e);
+                }
+            } catch (InterruptedException ex) {
+                stopped = true;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private static void append(Entry entry) {
+        try {
+            entry.logger.callAppenders(entry.event);
+        } catch (RuntimeException ex) {
+            // A failing appender must not end the writer thread
+            System.err.println(String.format("Writing a log event failed (%s)", ex.getMessage()));
+        }
+    }
+
+    private static class Entry {
+        private final Logger logger;
+        private final LoggingEvent event;
+
+        private Entry(Logger logger, LoggingEvent event) {
+            this.logger = logger;
+            this.event = event;
+        }
+    }
+}
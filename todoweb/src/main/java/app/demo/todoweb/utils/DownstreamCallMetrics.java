@@ -0,0 +1,86 @@
+package app.demo.todoweb.utils;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Counts the API calls made while handling one inbound request and records them as
+//todoweb.downstream.calls (count, sum and max per handler), so fan-out regressions
+//such as one API call per list item show up in the metrics. The WebClient calls are
+//blocking, so they are made (subscribed) on the request thread. Async requests, such
+//as the ones to ReactiveTodoListApiController, are not recorded
+@Component
+public class DownstreamCallMetrics implements AsyncHandlerInterceptor {
+
+    public static final AppLogger LOGGER = new AppLogger(DownstreamCallMetrics.class);
+
+    public static final String METRIC_NAME = "todoweb.downstream.calls";
+
+    private static final ThreadLocal<int[]> CALLS = new ThreadLocal<int[]>();
+
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public DownstreamCallMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Added to the API WebClient
+    public ExchangeFilterFunction exchangeFilter() {
+        return (request, next) -> {
+            var calls = CALLS.get();
+            if (calls != null) {
+                calls[0]++;
+            }
+            return next.exchange(request);
+        };
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CALLS.remove();
+        if (handler instanceof HandlerMethod && request.getDispatcherType() == DispatcherType.REQUEST) {
+            CALLS.set(new int[1]);
+        }
+        return true;
+    }
+
+    // afterCompletion(..) is not called for the first dispatch of an async request, so
+    // the Tomcat thread, which goes back to the pool now, must not keep the counter
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        CALLS.remove();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        var calls = CALLS.get();
+        if (calls == null) {
+            return;
+        }
+        CALLS.remove();
+
+        // The mapping pattern (e.g. '/update-refresh'), not the actual path, to keep
+        // the number of time series bounded
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder(METRIC_NAME)
+                .description("API calls made per inbound request")
+                .baseUnit("calls")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .register(meterRegistry)
+                .record(calls[0]);
+    }
+}
@@ -16,12 +16,12 @@ public class FileCache {
 
         File file = new File(fileName);
 
-        LOGGER.debug(String.format("Retrieving resource '%s' and saving it into a local file '%s'", fileName,
-                file.getAbsolutePath()));
+        LOGGER.debug("Retrieving resource '{}' and saving it into a local file '{}'", fileName,
+                file.getAbsolutePath());
 
         if (Files.notExists(Paths.get(fileName))) {
             try {
-                LOGGER.debug(String.format("Retrieving a file '%s' from embeded resources.", fileName));
+                LOGGER.debug("Retrieving a file '{}' from embeded resources.", fileName);
                 InputStream link = (this.getClass().getClassLoader().getResourceAsStream(fileName));
                 if (link != null) {
 
@@ -40,11 +40,11 @@ public class FileCache {
                         ex.getMessage()), ex);
             }
         } else {
-            LOGGER.debug(String.format("Resource file '%s' is already cached as '%s'.", fileName,
-                    Paths.get(fileName).getFileName().toAbsolutePath().toString()));
+            LOGGER.debug("Resource file '{}' is already cached as '{}'.", fileName,
+                    Paths.get(fileName).getFileName().toAbsolutePath().toString());
         }
 
-        LOGGER.debug(String.format("Exiting 'cacheEmbededFile' with a return value '%s'...", file.getAbsolutePath()));
+        LOGGER.debug("Exiting 'cacheEmbededFile' with a return value '{}'...", file.getAbsolutePath());
         return file.getAbsolutePath();
     }
 }
@@ -0,0 +1,68 @@
+package app.demo.todoweb.utils;
+
+import java.time.Instant;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.LayoutBase;
+
+//One JSON object per line (see logback-spring.xml):
+//{"timestamp":..,"level":..,"logger":..,"thread":..,"message":..,"mdc":{..},"stackTrace":..}
+//The thread is the one that logged the event, not AsyncLogDispatcher's writer thread
+public class JsonLogLayout extends LayoutBase<ILoggingEvent> {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+
+    @Override
+    public String doLayout(ILoggingEvent event) {
+        var sb = new StringBuilder(256);
+        sb.append('{');
+        appendField(sb, "timestamp", Instant.ofEpochMilli(event.getTimeStamp()).toString());
+        sb.append(',');
+        appendField(sb, "level", event.getLevel().toString());
+        sb.append(',');
+        appendField(sb, "logger", event.getLoggerName());
+        sb.append(',');
+        appendField(sb, "thread", event.getThreadName());
+        sb.append(',');
+        appendField(sb, "message", event.getFormattedMessage());
+
+        var mdc = event.getMDCPropertyMap();
+        if (mdc != null && !mdc.isEmpty()) {
+            sb.append(",\"mdc\":{");
+            var first = true;
+            for (var e : mdc.entrySet()) {
+                if (!first) {
+                    sb.append(',');
+                }
+                appendField(sb, e.getKey(), e.getValue());
+                first = false;
+            }
+            sb.append('}');
+        }
+
+        if (event.getThrowableProxy() != null) {
+            sb.append(',');
+            appendField(sb, "stackTrace", ThrowableProxyUtil.asString(event.getThrowableProxy()));
+        }
+
+        sb.append('}').append(CoreConstants.LINE_SEPARATOR);
+        return sb.toString();
+    }
+
+    private static void appendField(StringBuilder sb, String name, String value) {
+        sb.append('"');
+        ENCODER.quoteAsString(name, sb);
+        sb.append("\":");
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        ENCODER.quoteAsString(value, sb);
+        sb.append('"');
+    }
+}
@@ -25,8 +25,8 @@ public class KeyVaultHelper {
 
     public static String getSecret(String keyVaultName, String keyVaultSecretName, boolean debugAuthToken) {
         KeyVaultSecret secret = null;
-        LOGGER.debug(String.format("Attempting to retrieve secret '%s' from KeyVault '%s'", keyVaultSecretName,
-                keyVaultName));
+        LOGGER.debug("Attempting to retrieve secret '{}' from KeyVault '{}'", keyVaultSecretName,
+                keyVaultName);
         try {
             Token localToken = getLocalToken(debugAuthToken);
 
@@ -73,7 +73,7 @@ public class KeyVaultHelper {
     public static Token getLocalToken(boolean debugAuthToken) {
 
         if (currentToken != null && !currentToken.isExpired()) {
-            LOGGER.debug(String.format("Reusing a not-yet expired token: %s", currentToken));
+            LOGGER.debug("Reusing a not-yet expired token: {}", currentToken);
             return currentToken;
         }
 
@@ -96,7 +96,7 @@ public class KeyVaultHelper {
             }
             String responseString = httpResponse.body();
             if (debugAuthToken) {
-                LOGGER.debug(String.format("Received identity endpoint's response: %s", responseString));
+                LOGGER.debug("Received identity endpoint's response: {}", responseString);
             }
 
             ObjectMapper objMapper = new ObjectMapper();
@@ -104,7 +104,7 @@ public class KeyVaultHelper {
             currentToken = objMapper.readValue(httpResponse.body(), Token.class);
 
             if (debugAuthToken) {
-                LOGGER.debug(String.format("Received token: %s", currentToken));
+                LOGGER.debug("Received token: {}", currentToken);
             }
 
         } catch (Exception ex) {
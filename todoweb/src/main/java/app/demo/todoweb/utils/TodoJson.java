@@ -0,0 +1,76 @@
+package app.demo.todoweb.utils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+//Writers of the todo types (DTOs), created once per type from one
+//shared ObjectMapper instead of a new ObjectMapper per toString() call; the
+//toString() methods are called from log statements on the request path. Once the
+//application context is up, the mapper is Spring's (see AppConfig), the same one the
+//HTTP message converters use, with the Blackbird module (generated accessors instead
+//of reflection) registered
+public class TodoJson {
+
+    // Binary JSON (Smile), the format between todoweb and todoapi
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+    public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+    private static volatile TodoJson shared = new TodoJson(createObjectMapper());
+
+    private final ObjectMapper objectMapper;
+    private final ConcurrentHashMap<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<Class<?>, ObjectWriter>();
+
+    private TodoJson(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static void setObjectMapper(ObjectMapper objectMapper) {
+        shared = new TodoJson(objectMapper);
+    }
+
+    public static ObjectMapper getObjectMapper() {
+        return shared.objectMapper;
+    }
+
+    public static ObjectWriter writerFor(Class<?> type) {
+        var current = shared;
+        return current.writers.computeIfAbsent(type, current.objectMapper::writerFor);
+    }
+
+    // Configured as Spring's ObjectMapper is by default (see AppConfig); used until
+    // AppConfig sets Spring's, and where there is no application context
+    public static ObjectMapper createObjectMapper() {
+        return defaultBuilder().build();
+    }
+
+    public static ObjectMapper createSmileMapper() {
+        return createSmileMapper(defaultBuilder());
+    }
+
+    // Smile mapper with the builder's configuration (for Spring's, see AppConfig); dates
+    // are always written as epoch milliseconds, the binary format is not for browsers
+    public static ObjectMapper createSmileMapper(Jackson2ObjectMapperBuilder builder) {
+        return builder.factory(new SmileFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .featuresToDisable(SerializationFeature.WRITE_DATE_TIMESTAMPS_AS_NANOSECONDS,
+                        DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS)
+                .build();
+    }
+
+    private static Jackson2ObjectMapperBuilder defaultBuilder() {
+        return Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new BlackbirdModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        DeserializationFeature.READ_DATE_TIMESTAMPS_AS_NANOSECONDS);
+    }
+}
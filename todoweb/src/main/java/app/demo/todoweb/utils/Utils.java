@@ -1,8 +1,8 @@
 package app.demo.todoweb.utils;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 
 import java.io.InputStream;
 
@@ -16,7 +16,9 @@ import app.demo.todoweb.TodoApplication;
 public class Utils {
   public static final AppLogger LOGGER = new AppLogger(Utils.class);
 
-  private static DateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd HH:mm a z");
+  // Immutable, so it can be shared by concurrent toString() calls without locking
+  private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm a z")
+      .withZone(ZoneId.systemDefault());
   private static String GIT_COMMIT_ID = "";
 
   public static String toJsonValueContent(String value) {
@@ -25,7 +27,7 @@ public class Utils {
     return value.replace("\'", "\\'").replace("\"", "\\\"");
   }
 
-  public static String toJsonValueContent(Date value) {
+  public static String toJsonValueContent(Instant value) {
     if (value == null)
       return "null";
     return DATE_FORMAT.format(value);
@@ -4,6 +4,43 @@ const TIMEOUT_INFO=10000;
 const TIMEOUT_ERROR=20000;
 const TIMEOUT_PROGRESS=100000;
 
+//The page is rendered with the API to call (/api/todos/ or /api/pass-through/todos/);
+//the pass-through API returns todoapi's JSON, without statusText and completedOrig
+function getApiUri() {
+  const apiUri = document.body.dataset.apiUri;
+  if (apiUri === undefined || apiUri === "") {
+    return "/api/todos/";
+  }
+  return apiUri;
+}
+
+function formatStatusDate(value) {
+  const date = new Date(value);
+  const day = `${date.getDate()}`.padStart(2, "0");
+  const month = `${date.getMonth() + 1}`.padStart(2, "0");
+  return `${day}.${month}.${date.getFullYear()}`;
+}
+
+function getStatusText(todo) {
+  if (todo.statusText !== undefined) {
+    return todo.statusText;
+  }
+  if (todo.createdDateTime === undefined || todo.createdDateTime === null) {
+    return "";
+  }
+  if (todo.completedDateTime !== undefined && todo.completedDateTime !== null) {
+    return `created: ${formatStatusDate(todo.createdDateTime)}, completed: ${formatStatusDate(todo.completedDateTime)}`;
+  }
+  return `created: ${formatStatusDate(todo.createdDateTime)}`;
+}
+
+function getCompletedOrig(todo) {
+  if (todo.completedOrig !== undefined) {
+    return todo.completedOrig;
+  }
+  return todo.completed;
+}
+
 function saveTodo(repeats) {
   let newTodoInputTextElement = document.getElementById("new-todo-input-text");
   let newTodoText = newTodoInputTextElement.value;
@@ -14,7 +51,7 @@ function saveTodo(repeats) {
 
   displayTaskCreateFormMessage("saving", "Saving the new Todo...");
 
-  fetch(`/api/todos/`, {
+  fetch(getApiUri(), {
     method: "POST",
     headers: {
       Accept: "application/json",
@@ -313,13 +350,13 @@ function addTodoToList(todo) {
   let newTodoStatusTextDivElement = document.createElement("div");
   newTodoStatusTextDivElement.setAttribute("id", `status-text-${todo.id}`);
   newTodoStatusTextDivElement.classList.add("todo-status");
-  newTodoStatusTextDivElement.appendChild(document.createTextNode(todo.statusText));
+  newTodoStatusTextDivElement.appendChild(document.createTextNode(getStatusText(todo)));
   newTodoElement.appendChild(newTodoStatusTextDivElement);
 
   let origTodoCompleteCheckboxElement = document.createElement("input");
   origTodoCompleteCheckboxElement.setAttribute("hidden", "");
   origTodoCompleteCheckboxElement.setAttribute("id", `orig-completed-${todo.id}`);
-  origTodoCompleteCheckboxElement.setAttribute("value", `${todo.completedOrig}`);
+  origTodoCompleteCheckboxElement.setAttribute("value", `${getCompletedOrig(todo)}`);
   newTodoElement.appendChild(origTodoCompleteCheckboxElement);
 
   let todoListElement = document.getElementById("todo-list");
@@ -462,7 +499,7 @@ function refreshUpdate(repeats) {
 
   displayTodoListMessage("saving", "Saving updated Todo(s)...", 1);
 
-  fetch(`/api/todos/`, {
+  fetch(getApiUri(), {
     method: "PATCH",
     headers: {
       Accept: "application/json",
@@ -491,14 +528,14 @@ function refreshUpdate(repeats) {
                   if (jsonTodo.completed !== null && completedElement !== null) {
                     completedElement.checked = jsonTodo.completed;
                   }
-                  if (jsonTodo.origCompleted !== null && origCompletedElement !== null) {
-                    origCompletedElement.value = `${jsonTodo.completedOrig}`;
+                  if (getCompletedOrig(jsonTodo) !== null && origCompletedElement !== null) {
+                    origCompletedElement.value = `${getCompletedOrig(jsonTodo)}`;
                   }
                   if (jsonTodo.todoText !== null && todoTextElement !== null) {
                     todoTextElement.innerText = jsonTodo.todoText;
                   }
-                  if (jsonTodo.statusText !== null && statusTextElement !== null) {
-                    statusTextElement.innerText = jsonTodo.statusText;
+                  if (statusTextElement !== null) {
+                    statusTextElement.innerText = getStatusText(jsonTodo);
                   }
                 }
               }
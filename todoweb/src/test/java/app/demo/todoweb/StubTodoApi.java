@@ -0,0 +1,271 @@
+package app.demo.todoweb;
+
+import java.net.URI;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import app.demo.todoweb.dto.Todo;
+import app.demo.todoweb.utils.TodoJson;
+
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+//In-memory stand-in for todoapi's JSON API (todo-api-wire-format: json), for tests
+//running todoweb against it. Like the real API, writes without a JSON Content-Type
+//are answered with 415 and the list carries an ETag of the collection version
+//(unless turned off with setETags(false), as the API's etag-enabled default).
+//Requests are counted by method and path, e.g. "PATCH /api/todos/" or
+//"DELETE /api/todos/{id}"
+public class StubTodoApi {
+
+    private static final TypeReference<List<Map<String, Object>>> TODO_LIST_TYPE =
+            new TypeReference<List<Map<String, Object>>>() {
+            };
+
+    private static final TypeReference<Map<String, Object>> TODO_TYPE = new TypeReference<Map<String, Object>>() {
+    };
+
+    private final ObjectMapper objectMapper = TodoJson.createObjectMapper();
+
+    private final Map<UUID, Todo> todos = new LinkedHashMap<UUID, Todo>();
+    private long version = 0;
+    private volatile boolean eTags = true;
+
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<String, AtomicInteger>();
+
+    // List requests wait for this once their page has been read
+    private volatile CompletableFuture<Void> listGate = CompletableFuture.completedFuture(null);
+    private volatile CompletableFuture<Void> listRequested = new CompletableFuture<Void>();
+
+    private final DisposableServer server;
+
+    private StubTodoApi() {
+        server = HttpServer.create()
+                .port(0)
+                .handle(this::handle)
+                .bindNow();
+    }
+
+    public static StubTodoApi start() {
+        return new StubTodoApi();
+    }
+
+    public void stop() {
+        server.disposeNow();
+    }
+
+    // app.demo.todoweb.todo-api-uri
+    public String getTodoApiUri() {
+        return "http://localhost:" + server.port() + "/api/todos";
+    }
+
+    public Todo add(String todoText) {
+        var todo = new Todo(UUID.randomUUID(), todoText, Instant.now(), null, false);
+        synchronized (todos) {
+            todos.put(todo.getId(), todo);
+            version++;
+        }
+        return copyOf(todo);
+    }
+
+    public Todo get(UUID id) {
+        synchronized (todos) {
+            var todo = todos.get(id);
+            return todo != null ? copyOf(todo) : null;
+        }
+    }
+
+    public void setETags(boolean eTags) {
+        this.eTags = eTags;
+    }
+
+    public int getRequests(String methodAndPath) {
+        var count = requests.get(methodAndPath);
+        return count != null ? count.get() : 0;
+    }
+
+    public void resetRequests() {
+        requests.clear();
+    }
+
+    // List requests read the todos on arrival, but are only answered once released
+    public void holdListRequests() {
+        listRequested = new CompletableFuture<Void>();
+        listGate = new CompletableFuture<Void>();
+    }
+
+    public void awaitListRequest() throws Exception {
+        listRequested.get(5, TimeUnit.SECONDS);
+    }
+
+    public void releaseListRequests() {
+        listGate.complete(null);
+    }
+
+    private Mono<Void> handle(HttpServerRequest request, HttpServerResponse response) {
+        var path = URI.create(request.uri()).getPath();
+        var method = request.method().name();
+        var id = getId(path);
+
+        var normalizedPath = id != null ? "/api/todos/{id}" : (path.endsWith("/") ? path : path + "/");
+        requests.computeIfAbsent(method + " " + normalizedPath, k -> new AtomicInteger()).incrementAndGet();
+
+        if (normalizedPath.equals("/api/version/")) {
+            return response.sendString(Mono.just("stub")).then();
+        }
+        if (!method.equals("GET")) {
+            var contentType = request.requestHeaders().get("Content-Type");
+            if (contentType == null || !contentType.startsWith("application/json")) {
+                return response.status(415).send().then();
+            }
+        }
+
+        return request.receive().aggregate().asString().defaultIfEmpty("")
+                .flatMap(body -> {
+                    try {
+                        return answer(request, response, method, id, body);
+                    } catch (Exception ex) {
+                        return response.status(400).sendString(Mono.just(String.valueOf(ex.getMessage()))).then();
+                    }
+                });
+    }
+
+    private Mono<Void> answer(HttpServerRequest request, HttpServerResponse response, String method, UUID id,
+            String body) throws Exception {
+        synchronized (todos) {
+            if (id == null && method.equals("GET")) {
+                var eTag = "\"l-" + version + "\"";
+                if (eTags && eTag.equals(request.requestHeaders().get("If-None-Match"))) {
+                    return response.status(304).header("ETag", eTag).send().then();
+                }
+                var todoList = new ArrayList<Map<String, Object>>();
+                for (var todo : todos.values()) {
+                    todoList.add(0, toMap(todo));
+                }
+                var page = new LinkedHashMap<String, Object>();
+                page.put("todoList", todoList);
+                page.put("continuationToken", null);
+                var json = objectMapper.writeValueAsString(page);
+                listRequested.complete(null);
+                if (eTags) {
+                    response.header("ETag", eTag);
+                }
+                return Mono.fromFuture(listGate)
+                        .then(send(response, 200, json));
+            }
+            if (id == null && method.equals("POST")) {
+                Map<String, Object> newTodo = objectMapper.readValue(body, TODO_TYPE);
+                var todo = new Todo(UUID.randomUUID(), (String) newTodo.get("todoText"), Instant.now(), null, false);
+                todos.put(todo.getId(), todo);
+                version++;
+                return send(response, 200, objectMapper.writeValueAsString(toMap(todo)));
+            }
+            if (id == null && method.equals("PATCH")) {
+                var updatedTodos = new ArrayList<Map<String, Object>>();
+                for (var modifiedTodo : objectMapper.readValue(body, TODO_LIST_TYPE)) {
+                    var todo = update(modifiedTodo);
+                    if (todo == null) {
+                        return response.status(404).send().then();
+                    }
+                    updatedTodos.add(toMap(todo));
+                }
+                version++;
+                return send(response, 200, objectMapper.writeValueAsString(updatedTodos));
+            }
+            if (id != null && method.equals("GET")) {
+                var todo = todos.get(id);
+                if (todo == null) {
+                    return response.status(404).send().then();
+                }
+                return send(response, 200, objectMapper.writeValueAsString(toMap(todo)));
+            }
+            if (id != null && method.equals("PATCH")) {
+                Map<String, Object> modifiedTodo = objectMapper.readValue(body, TODO_TYPE);
+                modifiedTodo.put("id", id.toString());
+                var todo = update(modifiedTodo);
+                if (todo == null) {
+                    return response.status(404).send().then();
+                }
+                version++;
+                return send(response, 200, objectMapper.writeValueAsString(toMap(todo)));
+            }
+            if (id != null && method.equals("DELETE")) {
+                if (todos.remove(id) == null) {
+                    return response.status(404).send().then();
+                }
+                version++;
+                return response.status(200).send().then();
+            }
+            return response.status(405).send().then();
+        }
+    }
+
+    // Same rules as the API's PATCH: a text replaces the text, the flag completes or
+    // re-opens the todo
+    private Todo update(Map<String, Object> modifiedTodo) {
+        var todo = todos.get(UUID.fromString((String) modifiedTodo.get("id")));
+        if (todo == null) {
+            return null;
+        }
+        if (modifiedTodo.get("todoText") != null) {
+            todo.setTodoText((String) modifiedTodo.get("todoText"));
+        }
+        boolean completed = Boolean.TRUE.equals(modifiedTodo.get("completed"));
+        if (completed && todo.getCompletedDateTime() == null) {
+            todo.setCompletedDateTime(Instant.now());
+        } else if (!completed) {
+            todo.setCompletedDateTime(null);
+        }
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+    private static Mono<Void> send(HttpServerResponse response, int status, String json) {
+        return response.status(status)
+                .header("Content-Type", "application/json")
+                .sendString(Mono.just(json))
+                .then();
+    }
+
+    private static Map<String, Object> toMap(Todo todo) {
+        var retVal = new LinkedHashMap<String, Object>();
+        retVal.put("id", todo.getId().toString());
+        retVal.put("todoText", todo.getTodoText());
+        retVal.put("createdDateTime", todo.getCreatedDateTime().toString());
+        retVal.put("completedDateTime",
+                todo.getCompletedDateTime() != null ? todo.getCompletedDateTime().toString() : null);
+        retVal.put("completed", todo.getCompletedDateTime() != null);
+        return retVal;
+    }
+
+    private static UUID getId(String path) {
+        var segments = path.split("/");
+        if (segments.length == 0) {
+            return null;
+        }
+        try {
+            return UUID.fromString(segments[segments.length - 1]);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static Todo copyOf(Todo todo) {
+        return new Todo(todo.getId(), todo.getTodoText(), todo.getCreatedDateTime(), todo.getCompletedDateTime(),
+                todo.getCompletedDateTime() != null);
+    }
+}
@@ -0,0 +1,151 @@
+package app.demo.todoweb.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.utils.AppLogger;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+//Throughput and Tomcat worker threads of GET /api/todos/{id} (blocking) compared to
+//GET /api/reactive/todos/{id} against a stub API answering after 200 ms. Not part of
+//the regular test run:
+//  mvn test -Dtest=ReactiveApiLoadTest -Dbenchmark=true
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "server.tomcat.threads.max=200",
+        "app.demo.todoweb.todo-api-max-connections=1000",
+        "app.demo.todoweb.todo-list-micro-cache-millis=0",
+        "logging.level.app.demo.todoweb=info" })
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ReactiveApiLoadTest {
+
+    public static final AppLogger LOGGER = new AppLogger(ReactiveApiLoadTest.class);
+
+    private static final Duration API_LATENCY = Duration.ofMillis(200);
+    private static final int CONCURRENCY = 400;
+    private static final int REQUESTS = 4000;
+
+    private static final String TODO_JSON = "{\"id\":\"%s\",\"todoText\":\"Load test todo\","
+            + "\"createdDateTime\":\"2022-07-01T10:00:00Z\",\"completedDateTime\":null,\"completed\":false}";
+
+    private static DisposableServer stubApi;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void stubApiProperties(DynamicPropertyRegistry registry) {
+        stubApi = HttpServer.create()
+                .port(0)
+                .route(routes -> routes
+                        .get("/api/version", (request, response) -> response.sendString(Mono.just("load-test")))
+                        .get("/api/todos/{id}", (request, response) -> response
+                                .header("Content-Type", "application/json")
+                                .sendString(Mono.delay(API_LATENCY)
+                                        .map(e -> String.format(TODO_JSON, request.param("id"))))))
+                .bindNow();
+        registry.add("app.demo.todoweb.todo-api-uri", () -> "http://localhost:" + stubApi.port() + "/api/todos");
+    }
+
+    @AfterAll
+    static void stopStubApi() {
+        if (stubApi != null) {
+            stubApi.disposeNow();
+        }
+    }
+
+    @Test
+    void compareBlockingWithReactive() {
+        var client = WebClient.create("http://localhost:" + port);
+
+        // Warm up both paths with a few requests, not enough to grow the Tomcat pool
+        run(client, "/api/reactive/todos/{id}", 50, 10);
+        run(client, "/api/todos/{id}", 50, 10);
+
+        // The reactive path first: Tomcat does not shrink its pool right away, so the
+        // workers started by the blocking run would be counted for the reactive one
+        var reactive = run(client, "/api/reactive/todos/{id}", REQUESTS, CONCURRENCY);
+        var blocking = run(client, "/api/todos/{id}", REQUESTS, CONCURRENCY);
+
+        LOGGER.info(String.format("Blocking: %s", blocking));
+        LOGGER.info(String.format("Reactive: %s", reactive));
+
+        assertEquals(REQUESTS, blocking.succeeded);
+        assertEquals(REQUESTS, reactive.succeeded);
+        assertTrue(reactive.tomcatWorkers < blocking.tomcatWorkers,
+                String.format("Reactive used %s Tomcat workers, blocking %s", reactive.tomcatWorkers,
+                        blocking.tomcatWorkers));
+    }
+
+    private static Result run(WebClient client, String path, int requests, int concurrency) {
+        var threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        var succeeded = new AtomicInteger();
+
+        long start = System.nanoTime();
+        Flux.range(0, requests)
+                .flatMap(i -> client.get()
+                        .uri(path, UUID.randomUUID())
+                        .retrieve()
+                        .toBodilessEntity()
+                        .doOnNext(e -> {
+                            if (e.getStatusCode().is2xxSuccessful()) {
+                                succeeded.incrementAndGet();
+                            }
+                        })
+                        .onErrorResume(ex -> Mono.empty()), concurrency)
+                .blockLast();
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(requests / (elapsed / 1_000_000_000.0), succeeded.get(), threads.getPeakThreadCount(),
+                tomcatWorkers());
+    }
+
+    private static int tomcatWorkers() {
+        int count = 0;
+        for (var thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("http-nio-") && thread.getName().contains("-exec-")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static class Result {
+        final double throughput;
+        final int succeeded;
+        final int peakThreads;
+        final int tomcatWorkers;
+
+        Result(double throughput, int succeeded, int peakThreads, int tomcatWorkers) {
+            this.throughput = throughput;
+            this.succeeded = succeeded;
+            this.peakThreads = peakThreads;
+            this.tomcatWorkers = tomcatWorkers;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.0f requests/s, %s succeeded, peak JVM threads %s, Tomcat workers %s",
+                    throughput, succeeded, peakThreads, tomcatWorkers);
+        }
+    }
+}
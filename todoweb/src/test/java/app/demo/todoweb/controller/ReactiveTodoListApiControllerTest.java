@@ -0,0 +1,120 @@
+package app.demo.todoweb.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.StubTodoApi;
+
+//The write paths of /api/reactive against a stub API, which, like todoapi, rejects
+//writes without a Content-Type it consumes
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "app.demo.todoweb.todo-api-wire-format=json" })
+public class ReactiveTodoListApiControllerTest {
+
+    private static StubTodoApi stubApi;
+
+    @LocalServerPort
+    private int port;
+
+    private WebClient client;
+
+    @DynamicPropertySource
+    static void stubApiProperties(DynamicPropertyRegistry registry) {
+        stubApi = StubTodoApi.start();
+        registry.add("app.demo.todoweb.todo-api-uri", stubApi::getTodoApiUri);
+    }
+
+    @AfterAll
+    static void stopStubApi() {
+        if (stubApi != null) {
+            stubApi.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        client = WebClient.create("http://localhost:" + port + "/api/reactive/todos/");
+        stubApi.resetRequests();
+    }
+
+    @Test
+    void whenTodoIsCreated_thenApiShouldHaveIt() {
+        var response = client.post()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("todoText", "Create it reactively"))
+                .retrieve()
+                .toEntity(Map.class)
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, stubApi.getRequests("POST /api/todos/"));
+    }
+
+    @Test
+    void whenTodoIsUpdated_thenApiShouldHaveIt() {
+        var todo = stubApi.add("Update it reactively");
+
+        var response = client.patch()
+                .uri("{id}", todo.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("id", todo.getId().toString(), "todoText", "Updated reactively", "completed", true))
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("Updated reactively", stubApi.get(todo.getId()).getTodoText());
+        assertNotNull(stubApi.get(todo.getId()).getCompletedDateTime());
+    }
+
+    @Test
+    void whenTodosAreUpdated_thenOnePatchShouldBeSent() {
+        var first = stubApi.add("Update them reactively 1");
+        var second = stubApi.add("Update them reactively 2");
+
+        var response = client.patch()
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(List.of(Map.of("id", first.getId().toString(), "completed", true),
+                        Map.of("id", second.getId().toString(), "completed", true)))
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, stubApi.getRequests("PATCH /api/todos/"));
+        assertNotNull(stubApi.get(first.getId()).getCompletedDateTime());
+        assertNotNull(stubApi.get(second.getId()).getCompletedDateTime());
+    }
+
+    @Test
+    void whenTodoIsDeleted_thenApiShouldNotHaveIt() {
+        var todo = stubApi.add("Delete it reactively");
+
+        var response = client.delete()
+                .uri("{id}", todo.getId())
+                .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                .retrieve()
+                .toBodilessEntity()
+                .block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, stubApi.getRequests("DELETE /api/todos/{id}"));
+        assertNull(stubApi.get(todo.getId()));
+    }
+}
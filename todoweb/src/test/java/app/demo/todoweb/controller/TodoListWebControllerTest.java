@@ -0,0 +1,178 @@
+package app.demo.todoweb.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.AppConfig;
+import app.demo.todoweb.StubTodoApi;
+import app.demo.todoweb.dto.Todo;
+import app.demo.todoweb.utils.DownstreamCallMetrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+//Checkbox submits of the todo page against a stub API: all completion changes go to
+//the API in one PATCH, and the API calls per page request are recorded in
+//todoweb.downstream.calls
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+        "app.demo.todoweb.todo-api-wire-format=json",
+        "app.demo.todoweb.todo-list-micro-cache-millis=0" })
+public class TodoListWebControllerTest {
+
+    private static StubTodoApi stubApi;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private AppConfig appConfig;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebClient client;
+
+    @DynamicPropertySource
+    static void stubApiProperties(DynamicPropertyRegistry registry) {
+        stubApi = StubTodoApi.start();
+        registry.add("app.demo.todoweb.todo-api-uri", stubApi::getTodoApiUri);
+    }
+
+    @AfterAll
+    static void stopStubApi() {
+        if (stubApi != null) {
+            stubApi.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        client = WebClient.create("http://localhost:" + port);
+    }
+
+    @Test
+    void whenCompletionsAreSubmitted_thenOnePatchShouldBeSent() {
+        var first = stubApi.add("Submit it 1");
+        var second = stubApi.add("Submit it 2");
+        var third = stubApi.add("Leave it open");
+
+        // Loads the list, which the page after the submit is rendered from
+        getPage("/");
+        stubApi.resetRequests();
+
+        first.setCompleted(true);
+        second.setCompleted(true);
+        postPage("/update-refresh", first, second, third);
+
+        assertEquals(1, stubApi.getRequests("PATCH /api/todos/"));
+        assertEquals(0, stubApi.getRequests("PATCH /api/todos/{id}"));
+        assertEquals(0, stubApi.getRequests("GET /api/todos/{id}"));
+        assertEquals(0, stubApi.getRequests("GET /api/todos/"));
+
+        assertNotNull(stubApi.get(first.getId()).getCompletedDateTime());
+        assertNotNull(stubApi.get(second.getId()).getCompletedDateTime());
+        assertNull(stubApi.get(third.getId()).getCompletedDateTime());
+    }
+
+    @Test
+    void whenApiSendsNoETags_thenSubmitShouldNotFetchList() {
+        var todo = stubApi.add("Submit it without an ETag");
+
+        stubApi.setETags(false);
+        try {
+            getPage("/");
+            stubApi.resetRequests();
+
+            todo.setCompleted(true);
+            postPage("/update-refresh", todo);
+
+            assertEquals(1, stubApi.getRequests("PATCH /api/todos/"));
+            assertEquals(0, stubApi.getRequests("GET /api/todos/"));
+        } finally {
+            stubApi.setETags(true);
+        }
+    }
+
+    @Test
+    void whenLastKnownListIsTooOld_thenListShouldBeFetchedAgain() throws Exception {
+        var todo = stubApi.add("Submit it late");
+
+        long maxAgeMillis = appConfig.getTodoListLastKnownMaxAgeMillis();
+        appConfig.setTodoListLastKnownMaxAgeMillis(0);
+        try {
+            getPage("/");
+            Thread.sleep(5);
+            stubApi.resetRequests();
+
+            todo.setCompleted(true);
+            postPage("/update-refresh", todo);
+
+            assertEquals(1, stubApi.getRequests("PATCH /api/todos/"));
+            assertEquals(1, stubApi.getRequests("GET /api/todos/"));
+        } finally {
+            appConfig.setTodoListLastKnownMaxAgeMillis(maxAgeMillis);
+        }
+    }
+
+    @Test
+    void always_recordDownstreamCallsPerRequest() {
+        var todo = stubApi.add("Count its calls");
+        var listPageBefore = getDownstreamCalls("GET", "/");
+        var submitBefore = getDownstreamCalls("POST", "/update-refresh");
+
+        getPage("/");
+        todo.setCompleted(true);
+        postPage("/update-refresh", todo);
+
+        // The list page: one list request (a single page), the submit: one PATCH
+        var listPage = getDownstreamCalls("GET", "/");
+        assertEquals(listPageBefore[0] + 1, listPage[0]);
+        assertEquals(listPageBefore[1] + 1, listPage[1]);
+
+        var submit = getDownstreamCalls("POST", "/update-refresh");
+        assertEquals(submitBefore[0] + 1, submit[0]);
+        assertEquals(submitBefore[1] + 1, submit[1]);
+    }
+
+    // Returns { requests, API calls }
+    private long[] getDownstreamCalls(String method, String uri) {
+        var summary = meterRegistry.find(DownstreamCallMetrics.METRIC_NAME)
+                .tag("method", method)
+                .tag("uri", uri)
+                .summary();
+        if (summary == null) {
+            return new long[] { 0, 0 };
+        }
+        return new long[] { summary.count(), (long) summary.totalAmount() };
+    }
+
+    private void getPage(String path) {
+        client.get().uri(path).retrieve().toBodilessEntity().block();
+    }
+
+    // As the page's form posts the list: an unchecked checkbox is not sent at all
+    private void postPage(String path, Todo... todos) {
+        var form = new LinkedMultiValueMap<String, String>();
+        for (int i = 0; i < todos.length; i++) {
+            form.add(String.format("todoList[%s].id", i), todos[i].getId().toString());
+            form.add(String.format("todoList[%s].completedOrig", i), Boolean.toString(todos[i].getCompletedOrig()));
+            if (todos[i].getCompleted()) {
+                form.add(String.format("todoList[%s].completed", i), "on");
+            }
+        }
+        client.post().uri(path).body(BodyInserters.fromFormData(form)).retrieve().toBodilessEntity().block();
+    }
+}
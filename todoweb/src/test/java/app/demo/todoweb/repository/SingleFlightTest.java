@@ -0,0 +1,135 @@
+package app.demo.todoweb.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    @Test
+    void whenLoadsAreConcurrent_thenOneLoadShouldBeShared() throws Exception {
+        var singleFlight = new SingleFlight<Integer>(0, 5_000);
+        var loads = new AtomicInteger();
+        var loadStarted = new CountDownLatch(1);
+        var releaseLoad = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var results = new ArrayList<Future<Integer>>();
+            results.add(executor.submit(() -> singleFlight.get(() -> {
+                loadStarted.countDown();
+                releaseLoad.await(5, TimeUnit.SECONDS);
+                return loads.incrementAndGet();
+            })));
+            loadStarted.await(5, TimeUnit.SECONDS);
+
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> singleFlight.get(() -> loads.incrementAndGet())));
+            }
+            // Wait until all followers have joined the in-flight load
+            while (singleFlight.getSharedInFlight() < 7) {
+                Thread.sleep(1);
+            }
+            releaseLoad.countDown();
+
+            for (var result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(1, singleFlight.getLoads());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenWithinWindow_thenResultShouldBeReused() throws Exception {
+        var singleFlight = new SingleFlight<Integer>(60_000, 5_000);
+        var loads = new AtomicInteger();
+
+        assertEquals(1, singleFlight.get(() -> loads.incrementAndGet()));
+        assertEquals(1, singleFlight.get(() -> loads.incrementAndGet()));
+        assertEquals(1, singleFlight.getSharedCompleted());
+
+        singleFlight.invalidate();
+        assertEquals(2, singleFlight.get(() -> loads.incrementAndGet()));
+    }
+
+    @Test
+    void whenLoadFails_thenFailureShouldNotBeCached() throws Exception {
+        var singleFlight = new SingleFlight<Integer>(60_000, 5_000);
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.get(() -> {
+            throw new IllegalStateException("API down");
+        }));
+        assertEquals(42, singleFlight.get(() -> 42));
+    }
+
+    @Test
+    void whenLoadThrowsError_thenWaitingAndLaterCallersShouldNotHang() throws Exception {
+        var singleFlight = new SingleFlight<Integer>(60_000, 5_000);
+        var loadStarted = new CountDownLatch(1);
+        var releaseLoad = new CountDownLatch(1);
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var leader = executor.submit(() -> singleFlight.get(() -> {
+                loadStarted.countDown();
+                releaseLoad.await(5, TimeUnit.SECONDS);
+                throw new AssertionError("Broken load");
+            }));
+            loadStarted.await(5, TimeUnit.SECONDS);
+
+            var follower = executor.submit(() -> singleFlight.get(() -> 0));
+            while (singleFlight.getSharedInFlight() < 1) {
+                Thread.sleep(1);
+            }
+            releaseLoad.countDown();
+
+            var leaderFailure = assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertTrue(leaderFailure.getCause() instanceof AssertionError);
+            var followerFailure = assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertTrue(followerFailure.getCause() instanceof AssertionError);
+
+            // The failed load is neither in flight nor cached any more
+            assertEquals(42, singleFlight.get(() -> 42));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenLoadTakesTooLong_thenWaitingCallersShouldGiveUp() throws Exception {
+        var singleFlight = new SingleFlight<Integer>(0, 50);
+        var loadStarted = new CountDownLatch(1);
+        var releaseLoad = new CountDownLatch(1);
+
+        var executor = Executors.newSingleThreadExecutor();
+        try {
+            var leader = executor.submit(() -> singleFlight.get(() -> {
+                loadStarted.countDown();
+                releaseLoad.await(5, TimeUnit.SECONDS);
+                return 1;
+            }));
+            loadStarted.await(5, TimeUnit.SECONDS);
+
+            assertThrows(TimeoutException.class, () -> singleFlight.get(() -> 2));
+
+            releaseLoad.countDown();
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
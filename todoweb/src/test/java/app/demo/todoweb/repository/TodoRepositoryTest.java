@@ -0,0 +1,118 @@
+package app.demo.todoweb.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import app.demo.todoweb.StubTodoApi;
+import app.demo.todoweb.dto.NewTodo;
+import app.demo.todoweb.dto.Todo;
+
+//The last known list (findAllLastKnown()) against a stub API: a list fetch racing
+//with a write must not bring back the list of before the write
+@SpringBootTest(properties = {
+        "app.demo.todoweb.todo-api-wire-format=json",
+        "app.demo.todoweb.todo-list-micro-cache-millis=0" })
+public class TodoRepositoryTest {
+
+    private static StubTodoApi stubApi;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @DynamicPropertySource
+    static void stubApiProperties(DynamicPropertyRegistry registry) {
+        stubApi = StubTodoApi.start();
+        registry.add("app.demo.todoweb.todo-api-uri", stubApi::getTodoApiUri);
+    }
+
+    @AfterAll
+    static void stopStubApi() {
+        if (stubApi != null) {
+            stubApi.stop();
+        }
+    }
+
+    @Test
+    void whenListIsFetched_thenItShouldBeLastKnown() throws Exception {
+        var todo = stubApi.add("Know it");
+
+        todoRepository.findAll(Sort.unsorted());
+
+        var lastKnown = todoRepository.findAllLastKnown();
+        assertNotNull(lastKnown);
+        assertTrue(contains(lastKnown, todo.getId()));
+    }
+
+    @Test
+    void whenTodoIsCreatedDuringListFetch_thenFetchedListShouldNotBeLastKnown() throws Exception {
+        stubApi.add("Race it 1");
+
+        var executor = Executors.newSingleThreadExecutor();
+        stubApi.holdListRequests();
+        try {
+            Future<List<Todo>> fetch = executor.submit(() -> todoRepository.findAll(Sort.unsorted()));
+            stubApi.awaitListRequest();
+
+            var createdTodo = todoRepository.insert(new NewTodo("Race it 2"));
+            stubApi.releaseListRequests();
+
+            // The fetch read the list before the write
+            assertFalse(contains(fetch.get(5, TimeUnit.SECONDS), createdTodo.getId()));
+            assertNull(todoRepository.findAllLastKnown());
+
+            assertTrue(contains(todoRepository.findAll(Sort.unsorted()), createdTodo.getId()));
+        } finally {
+            stubApi.releaseListRequests();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenTodoIsDeletedDuringListFetch_thenFetchedListShouldNotBeLastKnown() throws Exception {
+        var todo = stubApi.add("Race and delete it");
+        stubApi.resetRequests();
+
+        var executor = Executors.newSingleThreadExecutor();
+        stubApi.holdListRequests();
+        try {
+            Future<List<Todo>> fetch = executor.submit(() -> todoRepository.findAll(Sort.unsorted()));
+            stubApi.awaitListRequest();
+
+            todoRepository.deleteById(todo.getId());
+            stubApi.releaseListRequests();
+
+            assertTrue(contains(fetch.get(5, TimeUnit.SECONDS), todo.getId()));
+            assertNull(todoRepository.findAllLastKnown());
+            assertEquals(1, stubApi.getRequests("DELETE /api/todos/{id}"));
+        } finally {
+            stubApi.releaseListRequests();
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean contains(List<Todo> todos, UUID id) {
+        for (var todo : todos) {
+            if (todo.getId().equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,167 @@
+package app.demo.todoweb.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import app.demo.todoweb.AppConfig;
+import app.demo.todoweb.controller.WebHealthContributor;
+
+import reactor.core.publisher.Mono;
+
+//The version call is answered by a stub exchange function, check() is called directly
+//instead of from the scheduler (start() is not called)
+class ApiHealthMonitorTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private volatile HttpStatus status = HttpStatus.OK;
+
+    private volatile Duration latency = Duration.ZERO;
+
+    @Test
+    void whenApiAnswers_thenHealthShouldBeUp() {
+        var monitor = createMonitor(createAppConfig());
+        var contributor = createContributor(monitor);
+
+        assertEquals(Status.UNKNOWN, contributor.health().getStatus());
+
+        monitor.check();
+
+        assertEquals(Status.UP, contributor.health().getStatus());
+        assertEquals(ApiHealthMonitor.CircuitState.CLOSED, monitor.getCircuitState());
+    }
+
+    @Test
+    void whenApiIsSlow_thenHealthShouldBeDegraded() {
+        var appConfig = createAppConfig();
+        appConfig.setApiSlowResponseMillis(10);
+        var monitor = createMonitor(appConfig);
+        var contributor = createContributor(monitor);
+
+        latency = Duration.ofMillis(50);
+        monitor.check();
+
+        assertEquals(WebHealthContributor.DEGRADED, contributor.health().getStatus());
+        assertEquals(ApiHealthMonitor.CircuitState.CLOSED, monitor.getCircuitState());
+
+        latency = Duration.ZERO;
+        monitor.check();
+
+        assertEquals(Status.UP, contributor.health().getStatus());
+    }
+
+    @Test
+    void whenApiFailsRepeatedly_thenCircuitShouldOpenAndSkipCalls() {
+        var appConfig = createAppConfig();
+        appConfig.setApiCircuitFailureThreshold(2);
+        appConfig.setApiCircuitOpenSeconds(60);
+        var monitor = createMonitor(appConfig);
+        var contributor = createContributor(monitor);
+
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+        monitor.check();
+
+        assertEquals(WebHealthContributor.DEGRADED, contributor.health().getStatus());
+        assertEquals(ApiHealthMonitor.CircuitState.CLOSED, monitor.getCircuitState());
+
+        monitor.check();
+
+        assertEquals(ApiHealthMonitor.CircuitState.OPEN, monitor.getCircuitState());
+        assertEquals(2, calls.get());
+
+        status = HttpStatus.OK;
+        monitor.check();
+
+        // No call while the circuit is open, the API stays degraded
+        assertEquals(2, calls.get());
+        assertEquals(ApiHealthMonitor.CircuitState.OPEN, monitor.getCircuitState());
+        assertEquals(WebHealthContributor.DEGRADED, contributor.health().getStatus());
+    }
+
+    @Test
+    void whenOpenPeriodIsOver_thenTrialCallShouldDecide() {
+        var appConfig = createAppConfig();
+        appConfig.setApiCircuitFailureThreshold(1);
+        appConfig.setApiCircuitOpenSeconds(0);
+        var monitor = createMonitor(appConfig);
+        var contributor = createContributor(monitor);
+
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+        monitor.check();
+        assertEquals(ApiHealthMonitor.CircuitState.OPEN, monitor.getCircuitState());
+
+        // A failed trial call keeps the circuit open
+        monitor.check();
+        assertEquals(ApiHealthMonitor.CircuitState.OPEN, monitor.getCircuitState());
+        assertEquals(2, calls.get());
+
+        status = HttpStatus.OK;
+        monitor.check();
+
+        assertEquals(ApiHealthMonitor.CircuitState.CLOSED, monitor.getCircuitState());
+        assertEquals(Status.UP, contributor.health().getStatus());
+    }
+
+    @Test
+    void whenCheckStopsRunning_thenHealthShouldBeDown() throws Exception {
+        var appConfig = createAppConfig();
+        appConfig.setApiHealthCheckTtlSeconds(0);
+        var monitor = createMonitor(appConfig);
+        var contributor = createContributor(monitor);
+
+        monitor.check();
+        Thread.sleep(5);
+
+        assertEquals(Status.DOWN, contributor.health().getStatus());
+    }
+
+    @Test
+    void whenCircuitIsOpen_thenSkippedChecksShouldKeepResultFresh() throws Exception {
+        var appConfig = createAppConfig();
+        appConfig.setApiHealthCheckTtlSeconds(1);
+        appConfig.setApiCircuitFailureThreshold(1);
+        appConfig.setApiCircuitOpenSeconds(60);
+        var monitor = createMonitor(appConfig);
+        var contributor = createContributor(monitor);
+
+        status = HttpStatus.SERVICE_UNAVAILABLE;
+        monitor.check();
+        Thread.sleep(1100);
+        monitor.check();
+
+        assertEquals(1, calls.get());
+        assertEquals(WebHealthContributor.DEGRADED, contributor.health().getStatus());
+    }
+
+    private AppConfig createAppConfig() {
+        var appConfig = new AppConfig();
+        appConfig.setTodoApiUri("http://todoapi.test/api/todos/");
+        appConfig.setApiHealthCheckTimeoutMillis(1000);
+        return appConfig;
+    }
+
+    private ApiHealthMonitor createMonitor(AppConfig appConfig) {
+        var webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    calls.incrementAndGet();
+                    return Mono.delay(latency).map(tick -> ClientResponse.create(status).build());
+                })
+                .build();
+        return new ApiHealthMonitor(appConfig, webClient);
+    }
+
+    private static WebHealthContributor createContributor(ApiHealthMonitor monitor) {
+        var contributor = new WebHealthContributor();
+        ReflectionTestUtils.setField(contributor, "apiHealthMonitor", monitor);
+        return contributor;
+    }
+}